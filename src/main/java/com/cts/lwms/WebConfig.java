@@ -18,8 +18,9 @@ public class WebConfig {
                 // Allow all origins for local development
                 registry.addMapping("/**")
                         .allowedOrigins("*")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE")
-                        .allowedHeaders("*");
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+                        .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor");
             }
             
             @Override
@@ -0,0 +1,143 @@
+package com.cts.lwms.cache;
+
+import com.cts.lwms.dto.CacheStatsDTO;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Small LRU cache bounded by entry count, with a fixed time-to-live per entry.
+ * Loads run outside the lock; a load that overlaps an invalidation is not stored,
+ * so an invalidated value cannot be put back by a reader that started earlier.
+ * Concurrent misses for the same key share a single load.
+ */
+public class BoundedTtlCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long generation;
+
+    public BoundedTtlCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached value for key, or the loader's result (not cached when null)
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        CompletableFuture<V> load;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            CompletableFuture<V> pending = inFlight.get(key);
+            if (pending != null) {
+                load = pending;
+                loadGeneration = -1;
+            } else {
+                load = new CompletableFuture<>();
+                inFlight.put(key, load);
+                loadGeneration = generation;
+            }
+        }
+
+        if (loadGeneration < 0) {
+            // Another caller is already loading this key; wait for its result
+            try {
+                return load.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                inFlight.remove(key, load);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            inFlight.remove(key, load);
+            if (value != null && generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        load.complete(value);
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    // In-flight loads are detached too, so callers arriving after an invalidation start a fresh load
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+        inFlight.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        inFlight.clear();
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        // Drop expired entries so size reflects what can still be served
+        long now = System.currentTimeMillis();
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+                evictions++;
+            }
+        }
+        return new CacheStatsDTO(name, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cts.lwms.controller;
+
+import com.cts.lwms.dto.ActivityDTO;
+import com.cts.lwms.dto.ActivityPageDTO;
+import com.cts.lwms.service.ActivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/activity")
+@CrossOrigin(origins = "*")
+public class ActivityController {
+    @Autowired
+    private ActivityService activityService;
+
+    /**
+     * Stored activity, newest first, one keyset page at a time
+     * (next page's cursor in X-Next-Cursor)
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String type) {
+        try {
+            ActivityPageDTO page = activityService.getFeed(cursor, limit, type);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Latest stored activity from memory, without touching the database
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<ActivityDTO>> getRecent(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(activityService.getRecent(limit));
+    }
+}
@@ -1,5 +1,6 @@
 package com.cts.lwms.controller;
 
+import com.cts.lwms.dto.CacheStatsDTO;
 import com.cts.lwms.model.Category;
 import com.cts.lwms.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +40,11 @@ public class CategoryController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(categoryService.getCacheStats());
+    }
+
     @GetMapping("/{categoryId}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Integer categoryId) {
         return ResponseEntity.ok(categoryService.getCategoryById(categoryId));
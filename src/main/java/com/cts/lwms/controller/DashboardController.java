@@ -0,0 +1,23 @@
+package com.cts.lwms.controller;
+
+import com.cts.lwms.dto.DashboardSummaryDTO;
+import com.cts.lwms.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    @Autowired
+    private DashboardService dashboardService;
+
+    /**
+     * Dashboard KPIs computed server-side, served from the in-memory snapshot
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryDTO> getSummary() {
+        return ResponseEntity.ok(dashboardService.getSummary());
+    }
+}
@@ -0,0 +1,33 @@
+package com.cts.lwms.controller;
+
+import com.cts.lwms.service.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/events")
+@CrossOrigin(origins = "*")
+public class EventController {
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    /**
+     * Server-Sent Events stream of inventory, shipment, space and maintenance changes.
+     * "change" events carry entityType, entityId, action and the changed fields;
+     * a "resync" event means some events were dropped and the client should reload.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() throws IOException {
+        try {
+            return ResponseEntity.ok(changeStreamService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package com.cts.lwms.controller;
 
 import com.cts.lwms.dto.InventoryDTO;
+import com.cts.lwms.dto.InventoryPageDTO;
 import com.cts.lwms.model.Inventory;
 import com.cts.lwms.model.Category;
 import com.cts.lwms.service.InventoryService;
 import com.cts.lwms.service.CategoryService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -49,7 +56,7 @@ public class InventoryController {
     }
 
     @PutMapping("/update")
-    public ResponseEntity<Inventory> updateItem(@Valid @RequestBody InventoryDTO itemDto) {
+    public ResponseEntity<?> updateItem(@Valid @RequestBody InventoryDTO itemDto) {
         System.out.println("Updating InventoryDTO: " + itemDto);
         System.out.println("Category ID: " + itemDto.getCategoryId());
         
@@ -57,6 +64,12 @@ public class InventoryController {
         Inventory existingItem = inventoryService.getItemById(itemDto.getItemId())
             .orElseThrow(() -> new RuntimeException("Inventory item not found for update"));
         
+        // Reject updates based on a stale read
+        if (itemDto.getVersion() != null && !itemDto.getVersion().equals(existingItem.getVersion())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Error: Inventory item " + itemDto.getItemId() + " was modified by someone else, reload and retry");
+        }
+        
         existingItem.setItemName(itemDto.getItemName());
         // Set category by ID
         if (itemDto.getCategoryId() != null) {
@@ -70,7 +83,28 @@ public class InventoryController {
         existingItem.setQuantity(itemDto.getQuantity());
         existingItem.setLocation(itemDto.getLocation());
         System.out.println("Final Inventory item for update: " + existingItem);
-        return ResponseEntity.ok(inventoryService.updateItem(existingItem));
+        try {
+            return ResponseEntity.ok(inventoryService.updateItem(existingItem));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Error: Inventory item " + itemDto.getItemId() + " was modified concurrently, reload and retry");
+        }
+    }
+
+    /**
+     * Atomic stock adjustment, e.g. PATCH /inventory/adjust/42?delta=-3 for a pick of three
+     */
+    @PatchMapping("/adjust/{itemId}")
+    public ResponseEntity<?> adjustQuantity(@PathVariable Integer itemId, @RequestParam int delta) {
+        try {
+            return inventoryService.adjustQuantity(itemId, delta)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @DeleteMapping("/remove/{itemId}")
@@ -79,10 +113,71 @@ public class InventoryController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Bulk import; the body is read as a stream (CSV with header row, or one JSON object per line)
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importItems(HttpServletRequest request,
+                                         @RequestParam(required = false) String format,
+                                         @RequestParam(required = false) Integer batchSize) throws IOException {
+        String contentType = request.getContentType();
+        String resolvedFormat = format != null ? format
+                : (contentType != null && contentType.toLowerCase().contains("csv") ? "csv" : "ndjson");
+        try {
+            return ResponseEntity.ok(inventoryService.importItems(request.getInputStream(), resolvedFormat, batchSize));
+        } catch (IllegalArgumentException e) {
+            // Raised for the upload as a whole, e.g. a CSV header without itemName; row errors are in the result
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the whole inventory as NDJSON (default) or CSV without building it in memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportInventory(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv;
+        try {
+            csv = "csv".equals(InventoryService.exportFormat(format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+        StreamingResponseBody body = out -> inventoryService.exportInventory(out, format);
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=inventory." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/view")
     public ResponseEntity<List<Inventory>> viewInventory() {
         return ResponseEntity.ok(inventoryService.viewInventory());
     }
+
+    /**
+     * One keyset page of flat InventoryDTO rows; the cursor for the next page is sent in the
+     * X-Next-Cursor header, so the body is a plain array
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> viewInventoryPage(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) Integer categoryId,
+                                               @RequestParam(required = false) String location,
+                                               @RequestParam(required = false) Integer minQuantity,
+                                               @RequestParam(required = false) Integer maxQuantity,
+                                               @RequestParam(required = false) String sort) {
+        try {
+            InventoryPageDTO page = inventoryService.viewInventoryPage(cursor, limit, categoryId, location,
+                    minQuantity, maxQuantity, sort);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
     
     @GetMapping("/categories")
     public ResponseEntity<List<Category>> getCategories() {
@@ -1,13 +1,18 @@
 package com.cts.lwms.controller;
 
+import com.cts.lwms.dto.ReportJobDTO;
+import com.cts.lwms.dto.ReportJobRequestDTO;
 import com.cts.lwms.model.Report;
+import com.cts.lwms.service.ReportJobService;
 import com.cts.lwms.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/report")
@@ -15,6 +20,9 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
     @PostMapping("/generate")
     public ResponseEntity<Report> generateReport(@RequestBody Report report) {
         return ResponseEntity.ok(reportService.generateReport(report));
@@ -30,8 +38,49 @@ public class ReportController {
         return ResponseEntity.ok(reportService.getAllReports());
     }
 
+    /**
+     * Queue a report built from the live data; returns the job at once (202).
+     * Poll /report/jobs/{jobId} for progress; the finished job names the saved Report.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(@RequestBody ReportJobRequestDTO request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: Report queue is full, try again later");
+        }
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ReportJobDTO>> getReportJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getReportJob(@PathVariable String jobId) {
+        return toResponse(reportJobService.getJob(jobId));
+    }
+
+    /**
+     * Cancel a queued or running report job; a finished job gives 409
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<?> cancelReportJob(@PathVariable String jobId) {
+        try {
+            return toResponse(reportJobService.cancel(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/test")
     public ResponseEntity<String> testReportAPI() {
         return ResponseEntity.ok("Report API is working correctly!");
     }
+
+    private static ResponseEntity<?> toResponse(Optional<ReportJobDTO> job) {
+        return job.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
 }
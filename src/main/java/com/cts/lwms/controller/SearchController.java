@@ -0,0 +1,28 @@
+package com.cts.lwms.controller;
+
+import com.cts.lwms.dto.SearchResultDTO;
+import com.cts.lwms.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Prefix and typo-tolerant search over items, categories and shipment lanes.
+     * type optionally narrows to inventory, category or shipment.
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchResultDTO>> search(@RequestParam("q") String query,
+                                                        @RequestParam(required = false) String type,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchIndexService.search(query, type, limit));
+    }
+}
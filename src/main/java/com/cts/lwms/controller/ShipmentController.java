@@ -1,17 +1,33 @@
 package com.cts.lwms.controller;
 
+import com.cts.lwms.dto.CacheStatsDTO;
+import com.cts.lwms.dto.LaneRebuildResultDTO;
+import com.cts.lwms.dto.LaneStatsDTO;
 import com.cts.lwms.dto.ShipmentDTO;
+import com.cts.lwms.dto.ShipmentBulkStatusDTO;
+import com.cts.lwms.dto.ShipmentBulkStatusResultDTO;
 import com.cts.lwms.dto.ShipmentTrackingDTO;
 import com.cts.lwms.dto.ShipmentListDTO;
+import com.cts.lwms.dto.ShipmentPageDTO;
+import com.cts.lwms.dto.ShipmentBucketRebuildResultDTO;
+import com.cts.lwms.dto.ShipmentTimeseriesDTO;
 import com.cts.lwms.model.Inventory;
 import com.cts.lwms.model.Shipment;
 import com.cts.lwms.repo.InventoryRepo;
+import com.cts.lwms.service.LaneStatsService;
+import com.cts.lwms.service.ShipmentBucketService;
 import com.cts.lwms.service.ShipmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +40,12 @@ public class ShipmentController {
     @Autowired
     private InventoryRepo inventoryRepo;
 
+    @Autowired
+    private LaneStatsService laneStatsService;
+
+    @Autowired
+    private ShipmentBucketService shipmentBucketService;
+
     @PostMapping("/receive")
     public ResponseEntity<?> receiveShipment(@RequestBody ShipmentDTO shipmentDto) {
         try {
@@ -41,11 +63,7 @@ public class ShipmentController {
                 .orElseThrow(() -> new RuntimeException("Inventory item not found with ID: " + shipmentDto.getItemId()));
             System.out.println("Found inventory item: " + inventory);
             
-            List<Shipment> existingShipments = shipmentService.getAllShipments();
-            System.out.println("Existing shipments count: " + existingShipments.size());
-            
-            boolean duplicate = existingShipments.stream()
-                .anyMatch(s -> s.getInventory().getItemId().equals(shipmentDto.getItemId()) && "Received".equalsIgnoreCase(s.getStatus()));
+            boolean duplicate = shipmentService.hasReceivedShipment(shipmentDto.getItemId());
             if (duplicate) {
                 System.out.println("ERROR: Duplicate shipment detected");
                 return ResponseEntity.badRequest().body("Error: This item already has a received shipment. Only one active received shipment per item is allowed.");
@@ -74,11 +92,18 @@ public class ShipmentController {
             }
             
             System.out.println("About to save shipment...");
-            Shipment savedShipment = shipmentService.receiveShipment(shipment);
+            Shipment savedShipment = shipmentService.receiveShipment(shipment, shipmentDto.getHoldQuantity());
             System.out.println("Successfully saved shipment with ID: " + savedShipment.getShipmentId());
             
             return ResponseEntity.ok(savedShipment);
             
+        } catch (DataIntegrityViolationException e) {
+            // Another dock recorded the receipt between the check and the insert
+            System.out.println("ERROR: Duplicate shipment rejected by database");
+            return ResponseEntity.badRequest().body("Error: This item already has a received shipment. Only one active received shipment per item is allowed.");
+        } catch (IllegalStateException e) {
+            // The destination zone cannot hold holdQuantity; nothing was stored
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             System.out.println("ERROR in receiveShipment: " + e.getMessage());
             e.printStackTrace();
@@ -130,6 +155,24 @@ public class ShipmentController {
         }
     }
 
+    /**
+     * Moves many shipments to one status in a single transaction, either by explicit ids
+     * or by fromStatus. The response lists updated, missing and rejected ids.
+     */
+    @PutMapping("/dispatch/bulk")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody ShipmentBulkStatusDTO request) {
+        try {
+            System.out.println("=== SHIPMENT BULK STATUS REQUEST ===");
+            System.out.println("Received DTO: " + request);
+            ShipmentBulkStatusResultDTO result = shipmentService.bulkUpdateStatus(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/delete/{shipmentId}")
     public ResponseEntity<Void> deleteShipment(@PathVariable Integer shipmentId) {
         Optional<Shipment> shipmentOpt = shipmentService.getShipmentById(shipmentId);
@@ -142,27 +185,107 @@ public class ShipmentController {
 
     @GetMapping("/track/{shipmentId}")
     public ResponseEntity<Optional<ShipmentTrackingDTO>> trackShipment(@PathVariable Integer shipmentId) {
-        System.out.println("=== SHIPMENT TRACK REQUEST ===");
-        System.out.println("Tracking shipment with ID: " + shipmentId);
-        
-        Optional<ShipmentTrackingDTO> shipment = shipmentService.trackShipment(shipmentId);
-        
-        if (shipment.isPresent()) {
-            ShipmentTrackingDTO s = shipment.get();
-            if (s.getItemId() != null) {
-                System.out.println("Successfully tracked shipment " + shipmentId + " with ItemId: " + s.getItemId());
-            } else {
-                System.out.println("Warning: Shipment " + shipmentId + " has no inventory associated");
-            }
-        } else {
-            System.out.println("Shipment not found with ID: " + shipmentId);
-        }
-        
-        return ResponseEntity.ok(shipment);
+        // Polled constantly by customers and carriers; answered from the tracking cache
+        return ResponseEntity.ok(shipmentService.trackShipment(shipmentId));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getTrackingCacheStats() {
+        return ResponseEntity.ok(shipmentService.getTrackingCacheStats());
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<ShipmentListDTO>> getAllShipments() {
         return ResponseEntity.ok(shipmentService.getAllShipmentsWithItemIds());
     }
+
+    /**
+     * Pre-aggregated counts by status and on-time percentage per origin-destination lane,
+     * busiest lanes first; origin and destination optionally narrow the list
+     */
+    @GetMapping("/lanes")
+    public ResponseEntity<List<LaneStatsDTO>> getLaneStats(@RequestParam(required = false) String origin,
+                                                           @RequestParam(required = false) String destination) {
+        return ResponseEntity.ok(laneStatsService.getLaneStats(origin, destination));
+    }
+
+    /**
+     * Recompute lane statistics from the Shipment table and list drifted lanes;
+     * the live figures are replaced only when apply is true
+     */
+    @PostMapping("/lanes/rebuild")
+    public ResponseEntity<LaneRebuildResultDTO> rebuildLaneStats(@RequestParam(defaultValue = "false") boolean apply) {
+        return ResponseEntity.ok(laneStatsService.rebuild(apply));
+    }
+
+    /**
+     * Shipment counts by expected delivery day or month (UTC) from the pre-aggregated buckets.
+     * from/to are inclusive calendar dates (yyyy-MM-dd); status limits the counts to one status.
+     */
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<?> getShipmentTimeseries(@RequestParam(required = false) String resolution,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                   @RequestParam(required = false) String status) {
+        try {
+            ShipmentTimeseriesDTO series = shipmentBucketService.getTimeseries(resolution, from, to, status);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the shipment buckets from the Shipment table, one delivery month per parallel query
+     */
+    @PostMapping("/stats/timeseries/rebuild")
+    public ResponseEntity<ShipmentBucketRebuildResultDTO> rebuildShipmentTimeseries() {
+        return ResponseEntity.ok(shipmentBucketService.rebuild());
+    }
+
+    /**
+     * Open shipments past their expected delivery date, one keyset page at a time
+     * (next page's cursor in X-Next-Cursor)
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<?> getOverdueShipments(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            ShipmentPageDTO page = shipmentService.getOverdueShipments(cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Filtered shipment listing, one keyset page at a time. deliveryFrom/deliveryTo are
+     * inclusive UTC calendar dates (yyyy-MM-dd); the next page's cursor is in X-Next-Cursor.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchShipments(@RequestParam(required = false) String status,
+                                             @RequestParam(required = false) String origin,
+                                             @RequestParam(required = false) String destination,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deliveryFrom,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deliveryTo,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            // UTC days, like the shipment buckets and /shipment/stats/timeseries
+            Date from = deliveryFrom != null ? Date.from(deliveryFrom.atStartOfDay(ZoneOffset.UTC).toInstant()) : null;
+            Date to = deliveryTo != null ? Date.from(deliveryTo.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()) : null;
+            ShipmentPageDTO page = shipmentService.searchShipments(status, origin, destination, from, to, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
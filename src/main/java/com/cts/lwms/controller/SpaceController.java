@@ -1,12 +1,21 @@
 package com.cts.lwms.controller;
 
+import com.cts.lwms.dto.SpaceHistoryDTO;
+import com.cts.lwms.dto.SpaceReconciliationDTO;
+import com.cts.lwms.dto.SpaceReservationRequestDTO;
+import com.cts.lwms.dto.SpaceUsageDTO;
 import com.cts.lwms.model.Space;
+import com.cts.lwms.model.SpaceReservation;
+import com.cts.lwms.service.SpaceHistoryService;
+import com.cts.lwms.service.SpaceReservationService;
 import com.cts.lwms.service.SpaceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/space")
@@ -15,11 +24,32 @@ public class SpaceController {
     @Autowired
     private SpaceService spaceService;
 
+    @Autowired
+    private SpaceReservationService spaceReservationService;
+
+    @Autowired
+    private SpaceHistoryService spaceHistoryService;
+
     @GetMapping("/view")
-    public ResponseEntity<List<Space>> viewSpaceUsage() {
+    public ResponseEntity<List<SpaceUsageDTO>> viewSpaceUsage() {
         return ResponseEntity.ok(spaceService.viewSpaceUsage());
     }
 
+    /**
+     * Utilization history per zone from memory, e.g. /space/history?resolution=hour&zone=A&limit=48
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getSpaceHistory(@RequestParam(required = false) String zone,
+                                             @RequestParam(defaultValue = "minute") String resolution,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            List<SpaceHistoryDTO> history = spaceHistoryService.getHistory(zone, resolution, limit);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/allocate")
     public ResponseEntity<Space> allocateSpace(@RequestBody Space space) {
         return ResponseEntity.ok(spaceService.allocateSpace(space));
@@ -30,4 +60,63 @@ public class SpaceController {
         spaceService.freeSpace(spaceId);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/reconcile")
+    public ResponseEntity<List<SpaceReconciliationDTO>> checkSpaceLedger() {
+        return ResponseEntity.ok(spaceService.reconcileSpaceUtilization(false));
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<List<SpaceReconciliationDTO>> repairSpaceLedger() {
+        return ResponseEntity.ok(spaceService.reconcileSpaceUtilization(true));
+    }
+
+    /**
+     * Hold capacity in a zone, e.g. {"shipmentId": 12, "quantity": 40} for an inbound shipment.
+     * 409 when the zone does not have that much available.
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<?> reserveSpace(@RequestBody SpaceReservationRequestDTO request) {
+        try {
+            return ResponseEntity.ok(spaceReservationService.reserve(request));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<SpaceReservation> getReservation(@PathVariable Integer reservationId) {
+        return spaceReservationService.getReservation(reservationId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/reservations")
+    public ResponseEntity<List<SpaceReservation>> getReservationsForShipment(@RequestParam Integer shipmentId) {
+        return ResponseEntity.ok(spaceReservationService.getReservationsForShipment(shipmentId));
+    }
+
+    @PutMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<?> confirmReservation(@PathVariable Integer reservationId) {
+        try {
+            return toResponse(spaceReservationService.confirm(reservationId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<?> releaseReservation(@PathVariable Integer reservationId) {
+        try {
+            return toResponse(spaceReservationService.release(reservationId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<?> toResponse(Optional<SpaceReservation> reservation) {
+        return reservation.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -3,6 +3,7 @@ package com.cts.lwms.dto;
 import java.util.Date;
 
 public class ActivityDTO {
+    private Long activityId;            // Assigned when stored, increasing; the feed cursor
     private String description;
     private String icon;
     private Date timestamp;
@@ -13,7 +14,8 @@ public class ActivityDTO {
     public ActivityDTO() {}
 
     // Constructor with all fields
-    public ActivityDTO(String description, String icon, Date timestamp, String type, String entityId) {
+    public ActivityDTO(Long activityId, String description, String icon, Date timestamp, String type, String entityId) {
+        this.activityId = activityId;
         this.description = description;
         this.icon = icon;
         this.timestamp = timestamp;
@@ -22,6 +24,9 @@ public class ActivityDTO {
     }
 
     // Getters and Setters
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -40,7 +45,8 @@ public class ActivityDTO {
     @Override
     public String toString() {
         return "ActivityDTO{" +
-                "description='" + description + '\'' +
+                "activityId=" + activityId +
+                ", description='" + description + '\'' +
                 ", icon='" + icon + '\'' +
                 ", timestamp=" + timestamp +
                 ", type='" + type + '\'' +
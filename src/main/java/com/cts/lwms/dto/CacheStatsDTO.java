@@ -0,0 +1,60 @@
+package com.cts.lwms.dto;
+
+public class CacheStatsDTO {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;   // Entries dropped for size or expiry
+    private double hitRate;
+
+    // Default constructor
+    public CacheStatsDTO() {}
+
+    // Constructor with all fields
+    public CacheStatsDTO(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.hitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0.0;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+
+    @Override
+    public String toString() {
+        return "CacheStatsDTO{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", hitRate=" + hitRate +
+                '}';
+    }
+}
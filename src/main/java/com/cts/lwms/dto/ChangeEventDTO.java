@@ -0,0 +1,57 @@
+package com.cts.lwms.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+public class ChangeEventDTO {
+    private long sequence;              // Increases with every published event
+    private String entityType;          // inventory, shipment, space, maintenance
+    private Integer entityId;           // Null for events covering many rows (imports, bulk updates)
+    private String action;              // created, updated, deleted, ...
+    private Map<String, Object> fields; // Only the values that changed
+    private Date timestamp;
+
+    // Default constructor
+    public ChangeEventDTO() {}
+
+    // Constructor with all fields
+    public ChangeEventDTO(long sequence, String entityType, Integer entityId, String action,
+                          Map<String, Object> fields, Date timestamp) {
+        this.sequence = sequence;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.fields = fields;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public Integer getEntityId() { return entityId; }
+    public void setEntityId(Integer entityId) { this.entityId = entityId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public Map<String, Object> getFields() { return fields; }
+    public void setFields(Map<String, Object> fields) { this.fields = fields; }
+
+    public Date getTimestamp() { return timestamp; }
+    public void setTimestamp(Date timestamp) { this.timestamp = timestamp; }
+
+    @Override
+    public String toString() {
+        return "ChangeEventDTO{" +
+                "sequence=" + sequence +
+                ", entityType='" + entityType + '\'' +
+                ", entityId=" + entityId +
+                ", action='" + action + '\'' +
+                ", fields=" + fields +
+                '}';
+    }
+}
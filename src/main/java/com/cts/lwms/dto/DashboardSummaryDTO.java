@@ -0,0 +1,73 @@
+package com.cts.lwms.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Dashboard KPIs for /dashboard/summary. A figure is null when its query has never succeeded;
+ * otherwise it is the last good value as of generatedAt.
+ */
+public class DashboardSummaryDTO {
+    private Long totalItems;
+    private Long activeShipments;        // Pending or In Transit
+    private Long shipmentsThisMonth;     // Expected delivery in the current calendar month (server time zone)
+    private Map<String, Long> shipmentsByStatus;
+    private Long zones;
+    private Long totalCapacity;
+    private Long usedCapacity;
+    private Double utilizationPercentage;
+    private Long pendingMaintenance;
+    private Long completedMaintenance;
+    private Date generatedAt;
+
+    // Default constructor
+    public DashboardSummaryDTO() {}
+
+    // Getters and Setters
+    public Long getTotalItems() { return totalItems; }
+    public void setTotalItems(Long totalItems) { this.totalItems = totalItems; }
+
+    public Long getActiveShipments() { return activeShipments; }
+    public void setActiveShipments(Long activeShipments) { this.activeShipments = activeShipments; }
+
+    public Long getShipmentsThisMonth() { return shipmentsThisMonth; }
+    public void setShipmentsThisMonth(Long shipmentsThisMonth) { this.shipmentsThisMonth = shipmentsThisMonth; }
+
+    public Map<String, Long> getShipmentsByStatus() { return shipmentsByStatus; }
+    public void setShipmentsByStatus(Map<String, Long> shipmentsByStatus) { this.shipmentsByStatus = shipmentsByStatus; }
+
+    public Long getZones() { return zones; }
+    public void setZones(Long zones) { this.zones = zones; }
+
+    public Long getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(Long totalCapacity) { this.totalCapacity = totalCapacity; }
+
+    public Long getUsedCapacity() { return usedCapacity; }
+    public void setUsedCapacity(Long usedCapacity) { this.usedCapacity = usedCapacity; }
+
+    public Double getUtilizationPercentage() { return utilizationPercentage; }
+    public void setUtilizationPercentage(Double utilizationPercentage) { this.utilizationPercentage = utilizationPercentage; }
+
+    public Long getPendingMaintenance() { return pendingMaintenance; }
+    public void setPendingMaintenance(Long pendingMaintenance) { this.pendingMaintenance = pendingMaintenance; }
+
+    public Long getCompletedMaintenance() { return completedMaintenance; }
+    public void setCompletedMaintenance(Long completedMaintenance) { this.completedMaintenance = completedMaintenance; }
+
+    public Date getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(Date generatedAt) { this.generatedAt = generatedAt; }
+
+    @Override
+    public String toString() {
+        return "DashboardSummaryDTO{" +
+                "totalItems=" + totalItems +
+                ", activeShipments=" + activeShipments +
+                ", shipmentsThisMonth=" + shipmentsThisMonth +
+                ", zones=" + zones +
+                ", utilizationPercentage=" + utilizationPercentage +
+                ", pendingMaintenance=" + pendingMaintenance +
+                ", completedMaintenance=" + completedMaintenance +
+                ", generatedAt=" + generatedAt +
+                '}';
+    }
+}
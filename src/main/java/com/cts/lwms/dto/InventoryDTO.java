@@ -1,5 +1,7 @@
 package com.cts.lwms.dto;
 
+import java.util.Date;
+
 // import jakarta.validation.constraints.NotBlank;
 // import jakarta.validation.constraints.NotNull;
 
@@ -10,6 +12,8 @@ public class InventoryDTO {
     private String categoryName; // For display purposes
     private Integer quantity;
     private String location;
+    private Long version; // Version the client last read; a mismatch on update is a conflict
+    private Date lastUpdated; // Output only; set on inventory pages
 
     // Getters and setters
     public Integer getItemId() { return itemId; }
@@ -30,6 +34,12 @@ public class InventoryDTO {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public Date getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(Date lastUpdated) { this.lastUpdated = lastUpdated; }
+    
     @Override
     public String toString() {
         return "InventoryDTO{" +
@@ -39,6 +49,8 @@ public class InventoryDTO {
                 ", categoryName='" + categoryName + '\'' +
                 ", quantity=" + quantity +
                 ", location='" + location + '\'' +
+                ", version=" + version +
+                ", lastUpdated=" + lastUpdated +
                 '}';
     }
 }
@@ -0,0 +1,30 @@
+package com.cts.lwms.dto;
+
+public class InventoryImportErrorDTO {
+    private Integer lineNumber;
+    private String message;
+
+    // Default constructor
+    public InventoryImportErrorDTO() {}
+
+    // Constructor with all fields
+    public InventoryImportErrorDTO(Integer lineNumber, String message) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Integer getLineNumber() { return lineNumber; }
+    public void setLineNumber(Integer lineNumber) { this.lineNumber = lineNumber; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    @Override
+    public String toString() {
+        return "InventoryImportErrorDTO{" +
+                "lineNumber=" + lineNumber +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
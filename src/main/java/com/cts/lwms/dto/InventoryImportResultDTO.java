@@ -0,0 +1,42 @@
+package com.cts.lwms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InventoryImportResultDTO {
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+    private int batches;
+    private List<InventoryImportErrorDTO> errors = new ArrayList<>(); // Capped, see failedRows for the full count
+
+    // Default constructor
+    public InventoryImportResultDTO() {}
+
+    // Getters and Setters
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+
+    public int getImportedRows() { return importedRows; }
+    public void setImportedRows(int importedRows) { this.importedRows = importedRows; }
+
+    public int getFailedRows() { return failedRows; }
+    public void setFailedRows(int failedRows) { this.failedRows = failedRows; }
+
+    public int getBatches() { return batches; }
+    public void setBatches(int batches) { this.batches = batches; }
+
+    public List<InventoryImportErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<InventoryImportErrorDTO> errors) { this.errors = errors; }
+
+    @Override
+    public String toString() {
+        return "InventoryImportResultDTO{" +
+                "totalRows=" + totalRows +
+                ", importedRows=" + importedRows +
+                ", failedRows=" + failedRows +
+                ", batches=" + batches +
+                ", errors=" + errors.size() +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.cts.lwms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LaneRebuildResultDTO {
+    private int lanes;          // Lanes found by the recompute
+    private int chunks;         // Shipment id ranges scanned in parallel
+    private List<String> driftedLanes = new ArrayList<>(); // "origin -> destination" whose live figures differed
+    private boolean applied;    // Whether the recomputed figures replaced the live ones
+    private long durationMillis;
+
+    // Default constructor
+    public LaneRebuildResultDTO() {}
+
+    // Getters and Setters
+    public int getLanes() { return lanes; }
+    public void setLanes(int lanes) { this.lanes = lanes; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public List<String> getDriftedLanes() { return driftedLanes; }
+    public void setDriftedLanes(List<String> driftedLanes) { this.driftedLanes = driftedLanes; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+
+    @Override
+    public String toString() {
+        return "LaneRebuildResultDTO{" +
+                "lanes=" + lanes +
+                ", chunks=" + chunks +
+                ", drifted=" + driftedLanes.size() +
+                ", applied=" + applied +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
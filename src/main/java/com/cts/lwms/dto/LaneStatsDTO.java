@@ -0,0 +1,67 @@
+package com.cts.lwms.dto;
+
+import java.util.Map;
+
+public class LaneStatsDTO {
+    private String origin;
+    private String destination;
+    private long total;
+    private Map<String, Long> statusCounts; // Status -> number of shipments on the lane
+    private long completed;                 // Delivered or Received
+    private long onTime;                    // Completed without having been flagged overdue
+    private Double onTimePercentage;        // Null until the lane has a completed shipment
+    private long overdue;                   // Still open and past the expected delivery date
+
+    // Default constructor
+    public LaneStatsDTO() {}
+
+    // Constructor with all fields
+    public LaneStatsDTO(String origin, String destination, long total, Map<String, Long> statusCounts,
+                        long completed, long onTime, long overdue) {
+        this.origin = origin;
+        this.destination = destination;
+        this.total = total;
+        this.statusCounts = statusCounts;
+        this.completed = completed;
+        this.onTime = onTime;
+        this.onTimePercentage = completed > 0 ? Math.round(onTime * 1000.0 / completed) / 10.0 : null;
+        this.overdue = overdue;
+    }
+
+    // Getters and Setters
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Long> getStatusCounts() { return statusCounts; }
+    public void setStatusCounts(Map<String, Long> statusCounts) { this.statusCounts = statusCounts; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getOnTime() { return onTime; }
+    public void setOnTime(long onTime) { this.onTime = onTime; }
+
+    public Double getOnTimePercentage() { return onTimePercentage; }
+    public void setOnTimePercentage(Double onTimePercentage) { this.onTimePercentage = onTimePercentage; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    @Override
+    public String toString() {
+        return "LaneStatsDTO{" +
+                "origin='" + origin + '\'' +
+                ", destination='" + destination + '\'' +
+                ", total=" + total +
+                ", statusCounts=" + statusCounts +
+                ", onTimePercentage=" + onTimePercentage +
+                ", overdue=" + overdue +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package com.cts.lwms.dto;
+
+import java.util.Date;
+
+public class ReportJobDTO {
+    private String jobId;
+    private String reportType;
+    private Integer days;
+    private String status;            // QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+    private boolean cancelRequested;  // Set while a running job is being stopped
+    private int progress;             // Percent of rows processed; 100 once COMPLETED
+    private long processedRows;
+    private long totalRows;
+    private Integer reportId;         // The saved Report once COMPLETED
+    private String error;             // Why the job FAILED
+    private Date submittedAt;
+    private Date startedAt;
+    private Date finishedAt;
+
+    // Default constructor
+    public ReportJobDTO() {}
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getReportType() { return reportType; }
+    public void setReportType(String reportType) { this.reportType = reportType; }
+
+    public Integer getDays() { return days; }
+    public void setDays(Integer days) { this.days = days; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public int getProgress() { return progress; }
+    public void setProgress(int progress) { this.progress = progress; }
+
+    public long getProcessedRows() { return processedRows; }
+    public void setProcessedRows(long processedRows) { this.processedRows = processedRows; }
+
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+
+    public Integer getReportId() { return reportId; }
+    public void setReportId(Integer reportId) { this.reportId = reportId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Date getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Date submittedAt) { this.submittedAt = submittedAt; }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+
+    public Date getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Date finishedAt) { this.finishedAt = finishedAt; }
+
+    @Override
+    public String toString() {
+        return "ReportJobDTO{" +
+                "jobId='" + jobId + '\'' +
+                ", reportType='" + reportType + '\'' +
+                ", status='" + status + '\'' +
+                ", progress=" + progress +
+                ", reportId=" + reportId +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.cts.lwms.dto;
+
+public class ReportJobRequestDTO {
+    private String reportType; // inventory, shipment, space or maintenance
+    private Integer days;      // Shipments and maintenance dated within the last days; null for all
+
+    // Default constructor
+    public ReportJobRequestDTO() {}
+
+    // Constructor with all fields
+    public ReportJobRequestDTO(String reportType, Integer days) {
+        this.reportType = reportType;
+        this.days = days;
+    }
+
+    // Getters and Setters
+    public String getReportType() { return reportType; }
+    public void setReportType(String reportType) { this.reportType = reportType; }
+
+    public Integer getDays() { return days; }
+    public void setDays(Integer days) { this.days = days; }
+
+    @Override
+    public String toString() {
+        return "ReportJobRequestDTO{" +
+                "reportType='" + reportType + '\'' +
+                ", days=" + days +
+                '}';
+    }
+}
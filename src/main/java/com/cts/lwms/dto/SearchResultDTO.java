@@ -0,0 +1,42 @@
+package com.cts.lwms.dto;
+
+public class SearchResultDTO {
+    private String type;     // inventory, category or shipment
+    private Integer id;
+    private String title;
+    private double score;
+
+    // Default constructor
+    public SearchResultDTO() {}
+
+    // Constructor with all fields
+    public SearchResultDTO(String type, Integer id, String title, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    @Override
+    public String toString() {
+        return "SearchResultDTO{" +
+                "type='" + type + '\'' +
+                ", id=" + id +
+                ", title='" + title + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
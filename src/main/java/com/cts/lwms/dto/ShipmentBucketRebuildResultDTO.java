@@ -0,0 +1,34 @@
+package com.cts.lwms.dto;
+
+public class ShipmentBucketRebuildResultDTO {
+    private int partitions;     // Delivery months scanned in parallel
+    private int buckets;        // Day and month rows written
+    private long shipments;     // Shipments counted (those with an expected delivery date)
+    private long durationMillis;
+
+    // Default constructor
+    public ShipmentBucketRebuildResultDTO() {}
+
+    // Getters and Setters
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+
+    public int getBuckets() { return buckets; }
+    public void setBuckets(int buckets) { this.buckets = buckets; }
+
+    public long getShipments() { return shipments; }
+    public void setShipments(long shipments) { this.shipments = shipments; }
+
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+
+    @Override
+    public String toString() {
+        return "ShipmentBucketRebuildResultDTO{" +
+                "partitions=" + partitions +
+                ", buckets=" + buckets +
+                ", shipments=" + shipments +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
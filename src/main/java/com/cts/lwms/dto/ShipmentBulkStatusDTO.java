@@ -0,0 +1,26 @@
+package com.cts.lwms.dto;
+
+import java.util.List;
+
+public class ShipmentBulkStatusDTO {
+    private List<Integer> shipmentIds; // Explicit ids, or
+    private String fromStatus;         // every shipment currently in this status
+    private String status;             // Target status
+
+    // Getters and setters
+    public List<Integer> getShipmentIds() { return shipmentIds; }
+    public void setShipmentIds(List<Integer> shipmentIds) { this.shipmentIds = shipmentIds; }
+    public String getFromStatus() { return fromStatus; }
+    public void setFromStatus(String fromStatus) { this.fromStatus = fromStatus; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    @Override
+    public String toString() {
+        return "ShipmentBulkStatusDTO{" +
+                "shipmentIds=" + (shipmentIds != null ? shipmentIds.size() + " ids" : "null") +
+                ", fromStatus='" + fromStatus + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
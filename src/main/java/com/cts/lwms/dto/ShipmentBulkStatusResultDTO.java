@@ -0,0 +1,43 @@
+package com.cts.lwms.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShipmentBulkStatusResultDTO {
+    private String status;
+    private List<Integer> updatedIds = new ArrayList<>();
+    private List<Integer> missingIds = new ArrayList<>();
+    private Map<Integer, String> rejected = new LinkedHashMap<>(); // Shipment id -> broken status rule
+
+    // Default constructor
+    public ShipmentBulkStatusResultDTO() {}
+
+    public ShipmentBulkStatusResultDTO(String status) {
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public List<Integer> getUpdatedIds() { return updatedIds; }
+    public void setUpdatedIds(List<Integer> updatedIds) { this.updatedIds = updatedIds; }
+
+    public List<Integer> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<Integer> missingIds) { this.missingIds = missingIds; }
+
+    public Map<Integer, String> getRejected() { return rejected; }
+    public void setRejected(Map<Integer, String> rejected) { this.rejected = rejected; }
+
+    @Override
+    public String toString() {
+        return "ShipmentBulkStatusResultDTO{" +
+                "status='" + status + '\'' +
+                ", updated=" + updatedIds.size() +
+                ", missing=" + missingIds.size() +
+                ", rejected=" + rejected.size() +
+                '}';
+    }
+}
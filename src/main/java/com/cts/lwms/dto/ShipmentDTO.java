@@ -6,6 +6,7 @@ public class ShipmentDTO {
     private String destination;
     private String status;
     private String expectedDeliveryDate; // Use String for easier parsing
+    private Integer holdQuantity; // Optional; capacity held in the destination zone until the shipment completes
 
     // Getters and setters
     public Integer getItemId() { return itemId; }
@@ -18,4 +19,6 @@ public class ShipmentDTO {
     public void setStatus(String status) { this.status = status; }
     public String getExpectedDeliveryDate() { return expectedDeliveryDate; }
     public void setExpectedDeliveryDate(String expectedDeliveryDate) { this.expectedDeliveryDate = expectedDeliveryDate; }
+    public Integer getHoldQuantity() { return holdQuantity; }
+    public void setHoldQuantity(Integer holdQuantity) { this.holdQuantity = holdQuantity; }
 }
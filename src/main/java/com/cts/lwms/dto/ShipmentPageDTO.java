@@ -0,0 +1,38 @@
+package com.cts.lwms.dto;
+
+import java.util.List;
+
+public class ShipmentPageDTO {
+    private List<ShipmentListDTO> items;
+    private String nextCursor; // Opaque keyset cursor for the following page, null on the last page
+    private boolean hasMore;
+
+    // Default constructor
+    public ShipmentPageDTO() {}
+
+    // Constructor with all fields
+    public ShipmentPageDTO(List<ShipmentListDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<ShipmentListDTO> getItems() { return items; }
+    public void setItems(List<ShipmentListDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    @Override
+    public String toString() {
+        return "ShipmentPageDTO{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.cts.lwms.dto;
+
+import java.util.Map;
+
+/**
+ * Shipment counts over a date range as parallel arrays ready for charting: buckets[i]
+ * (yyyy-MM-dd or yyyy-MM, UTC) has totals[i] shipments, countsByStatus.get(status)[i] of them in status.
+ * Every bucket in the range is present, empty ones with zero counts.
+ */
+public class ShipmentTimeseriesDTO {
+    private String resolution;
+    private String[] buckets;
+    private long[] totals;
+    private Map<String, long[]> countsByStatus;
+
+    // Default constructor
+    public ShipmentTimeseriesDTO() {}
+
+    // Constructor with all fields
+    public ShipmentTimeseriesDTO(String resolution, String[] buckets, long[] totals, Map<String, long[]> countsByStatus) {
+        this.resolution = resolution;
+        this.buckets = buckets;
+        this.totals = totals;
+        this.countsByStatus = countsByStatus;
+    }
+
+    // Getters and Setters
+    public String getResolution() { return resolution; }
+    public void setResolution(String resolution) { this.resolution = resolution; }
+
+    public String[] getBuckets() { return buckets; }
+    public void setBuckets(String[] buckets) { this.buckets = buckets; }
+
+    public long[] getTotals() { return totals; }
+    public void setTotals(long[] totals) { this.totals = totals; }
+
+    public Map<String, long[]> getCountsByStatus() { return countsByStatus; }
+    public void setCountsByStatus(Map<String, long[]> countsByStatus) { this.countsByStatus = countsByStatus; }
+
+    @Override
+    public String toString() {
+        return "ShipmentTimeseriesDTO{" +
+                "resolution='" + resolution + '\'' +
+                ", buckets=" + (buckets != null ? buckets.length : 0) +
+                ", statuses=" + (countsByStatus != null ? countsByStatus.keySet() : null) +
+                '}';
+    }
+}
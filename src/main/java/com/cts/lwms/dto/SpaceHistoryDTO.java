@@ -0,0 +1,57 @@
+package com.cts.lwms.dto;
+
+/**
+ * Utilization history of one zone at one resolution, as parallel arrays ready for charting:
+ * timestamps[i] (epoch millis, bucket start) has averageUtilization[i] and peakUtilization[i] (percent).
+ */
+public class SpaceHistoryDTO {
+    private Integer spaceId;
+    private String zone;
+    private String resolution;
+    private long[] timestamps;
+    private float[] averageUtilization;
+    private float[] peakUtilization;
+
+    // Default constructor
+    public SpaceHistoryDTO() {}
+
+    // Constructor with all fields
+    public SpaceHistoryDTO(Integer spaceId, String zone, String resolution, long[] timestamps,
+                           float[] averageUtilization, float[] peakUtilization) {
+        this.spaceId = spaceId;
+        this.zone = zone;
+        this.resolution = resolution;
+        this.timestamps = timestamps;
+        this.averageUtilization = averageUtilization;
+        this.peakUtilization = peakUtilization;
+    }
+
+    // Getters and Setters
+    public Integer getSpaceId() { return spaceId; }
+    public void setSpaceId(Integer spaceId) { this.spaceId = spaceId; }
+
+    public String getZone() { return zone; }
+    public void setZone(String zone) { this.zone = zone; }
+
+    public String getResolution() { return resolution; }
+    public void setResolution(String resolution) { this.resolution = resolution; }
+
+    public long[] getTimestamps() { return timestamps; }
+    public void setTimestamps(long[] timestamps) { this.timestamps = timestamps; }
+
+    public float[] getAverageUtilization() { return averageUtilization; }
+    public void setAverageUtilization(float[] averageUtilization) { this.averageUtilization = averageUtilization; }
+
+    public float[] getPeakUtilization() { return peakUtilization; }
+    public void setPeakUtilization(float[] peakUtilization) { this.peakUtilization = peakUtilization; }
+
+    @Override
+    public String toString() {
+        return "SpaceHistoryDTO{" +
+                "spaceId=" + spaceId +
+                ", zone='" + zone + '\'' +
+                ", resolution='" + resolution + '\'' +
+                ", points=" + (timestamps != null ? timestamps.length : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.cts.lwms.dto;
+
+public class SpaceReconciliationDTO {
+    private Integer spaceId;
+    private String zone;
+    private Integer ledgerUsedCapacity;     // usedCapacity as maintained incrementally on the Space row
+    private Integer recomputedUsedCapacity; // usedCapacity from a full recompute over Inventory
+    private Integer drift;
+    private boolean consistent;
+
+    // Default constructor
+    public SpaceReconciliationDTO() {}
+
+    // Constructor with all fields
+    public SpaceReconciliationDTO(Integer spaceId, String zone, Integer ledgerUsedCapacity,
+                                  Integer recomputedUsedCapacity) {
+        this.spaceId = spaceId;
+        this.zone = zone;
+        this.ledgerUsedCapacity = ledgerUsedCapacity;
+        this.recomputedUsedCapacity = recomputedUsedCapacity;
+        this.drift = ledgerUsedCapacity - recomputedUsedCapacity;
+        this.consistent = this.drift == 0;
+    }
+
+    // Getters and Setters
+    public Integer getSpaceId() { return spaceId; }
+    public void setSpaceId(Integer spaceId) { this.spaceId = spaceId; }
+
+    public String getZone() { return zone; }
+    public void setZone(String zone) { this.zone = zone; }
+
+    public Integer getLedgerUsedCapacity() { return ledgerUsedCapacity; }
+    public void setLedgerUsedCapacity(Integer ledgerUsedCapacity) { this.ledgerUsedCapacity = ledgerUsedCapacity; }
+
+    public Integer getRecomputedUsedCapacity() { return recomputedUsedCapacity; }
+    public void setRecomputedUsedCapacity(Integer recomputedUsedCapacity) { this.recomputedUsedCapacity = recomputedUsedCapacity; }
+
+    public Integer getDrift() { return drift; }
+    public void setDrift(Integer drift) { this.drift = drift; }
+
+    public boolean isConsistent() { return consistent; }
+    public void setConsistent(boolean consistent) { this.consistent = consistent; }
+
+    @Override
+    public String toString() {
+        return "SpaceReconciliationDTO{" +
+                "spaceId=" + spaceId +
+                ", zone='" + zone + '\'' +
+                ", ledgerUsedCapacity=" + ledgerUsedCapacity +
+                ", recomputedUsedCapacity=" + recomputedUsedCapacity +
+                ", drift=" + drift +
+                ", consistent=" + consistent +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.cts.lwms.dto;
+
+public class SpaceReservationRequestDTO {
+    private String zone;          // Defaults to the shipment's destination when shipmentId is given
+    private Integer quantity;
+    private Integer shipmentId;   // Optional; the hold is confirmed or released with the shipment
+    private Long ttlMinutes;      // Optional; lwms.reservations.default-ttl-minutes when absent
+
+    // Default constructor
+    public SpaceReservationRequestDTO() {}
+
+    // Constructor with all fields
+    public SpaceReservationRequestDTO(String zone, Integer quantity, Integer shipmentId, Long ttlMinutes) {
+        this.zone = zone;
+        this.quantity = quantity;
+        this.shipmentId = shipmentId;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    // Getters and Setters
+    public String getZone() { return zone; }
+    public void setZone(String zone) { this.zone = zone; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Integer getShipmentId() { return shipmentId; }
+    public void setShipmentId(Integer shipmentId) { this.shipmentId = shipmentId; }
+
+    public Long getTtlMinutes() { return ttlMinutes; }
+    public void setTtlMinutes(Long ttlMinutes) { this.ttlMinutes = ttlMinutes; }
+
+    @Override
+    public String toString() {
+        return "SpaceReservationRequestDTO{" +
+                "zone='" + zone + '\'' +
+                ", quantity=" + quantity +
+                ", shipmentId=" + shipmentId +
+                ", ttlMinutes=" + ttlMinutes +
+                '}';
+    }
+}
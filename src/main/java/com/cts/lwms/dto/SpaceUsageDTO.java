@@ -0,0 +1,58 @@
+package com.cts.lwms.dto;
+
+/**
+ * Read-only view of one zone's usage, computed from Inventory; same JSON shape as Space
+ */
+public class SpaceUsageDTO {
+    private Integer spaceId;
+    private String zone;
+    private Integer totalCapacity;
+    private Integer usedCapacity;
+    private Integer reservedCapacity;
+    private Integer availableCapacity;
+
+    // Default constructor
+    public SpaceUsageDTO() {}
+
+    // Constructor with all fields
+    public SpaceUsageDTO(Integer spaceId, String zone, Integer totalCapacity, Integer usedCapacity,
+                         Integer reservedCapacity, Integer availableCapacity) {
+        this.spaceId = spaceId;
+        this.zone = zone;
+        this.totalCapacity = totalCapacity;
+        this.usedCapacity = usedCapacity;
+        this.reservedCapacity = reservedCapacity;
+        this.availableCapacity = availableCapacity;
+    }
+
+    // Getters and Setters
+    public Integer getSpaceId() { return spaceId; }
+    public void setSpaceId(Integer spaceId) { this.spaceId = spaceId; }
+
+    public String getZone() { return zone; }
+    public void setZone(String zone) { this.zone = zone; }
+
+    public Integer getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(Integer totalCapacity) { this.totalCapacity = totalCapacity; }
+
+    public Integer getUsedCapacity() { return usedCapacity; }
+    public void setUsedCapacity(Integer usedCapacity) { this.usedCapacity = usedCapacity; }
+
+    public Integer getReservedCapacity() { return reservedCapacity; }
+    public void setReservedCapacity(Integer reservedCapacity) { this.reservedCapacity = reservedCapacity; }
+
+    public Integer getAvailableCapacity() { return availableCapacity; }
+    public void setAvailableCapacity(Integer availableCapacity) { this.availableCapacity = availableCapacity; }
+
+    @Override
+    public String toString() {
+        return "SpaceUsageDTO{" +
+                "spaceId=" + spaceId +
+                ", zone='" + zone + '\'' +
+                ", totalCapacity=" + totalCapacity +
+                ", usedCapacity=" + usedCapacity +
+                ", reservedCapacity=" + reservedCapacity +
+                ", availableCapacity=" + availableCapacity +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.cts.lwms.model;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One entry of the append-only activity log. Rows are only ever inserted, in batches, by
+ * ActivityService. activityId is assigned by the database in insert order and doubles as
+ * the feed cursor; entryKey is generated when the entry is recorded, so a retried batch
+ * cannot store an entry twice.
+ */
+@Entity
+@Table(name = "ActivityLog",
+    indexes = @Index(name = "idx_activity_type_id", columnList = "type, activity_id"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_activity_entry_key", columnNames = "entry_key"))
+public class ActivityLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long activityId;
+
+    @Column(length = 36)
+    private String entryKey;
+
+    private String type;
+    private String entityId;
+
+    @Column(length = 500)
+    private String description;
+
+    private String icon;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+	public Long getActivityId() {
+		return activityId;
+	}
+	public void setActivityId(Long activityId) {
+		this.activityId = activityId;
+	}
+	public String getEntryKey() {
+		return entryKey;
+	}
+	public void setEntryKey(String entryKey) {
+		this.entryKey = entryKey;
+	}
+	public String getType() {
+		return type;
+	}
+	public void setType(String type) {
+		this.type = type;
+	}
+	public String getEntityId() {
+		return entityId;
+	}
+	public void setEntityId(String entityId) {
+		this.entityId = entityId;
+	}
+	public String getDescription() {
+		return description;
+	}
+	public void setDescription(String description) {
+		this.description = description;
+	}
+	public String getIcon() {
+		return icon;
+	}
+	public void setIcon(String icon) {
+		this.icon = icon;
+	}
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+}
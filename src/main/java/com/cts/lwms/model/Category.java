@@ -1,7 +1,7 @@
 package com.cts.lwms.model;
 
 import jakarta.persistence.*;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 
 @Entity
@@ -17,8 +17,9 @@ public class Category {
 
     private String description;
 
+    // Not serialized: categories are cached detached, and listing them should not pull every item
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "category"})
+    @JsonIgnore
     private List<Inventory> inventoryItems;
 
     // Default constructor
@@ -6,22 +6,39 @@ import java.util.Date;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.persistence.JoinColumn;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "Inventory")
+@Table(name = "Inventory", indexes = {
+    // Keyset paging: every filter/sort column is paired with the item_id tie-breaker
+    @Index(name = "idx_inventory_category_item", columnList = "category_id, item_id"),
+    @Index(name = "idx_inventory_location_item", columnList = "location, item_id"),
+    @Index(name = "idx_inventory_quantity_item", columnList = "quantity, item_id"),
+    @Index(name = "idx_inventory_name_item", columnList = "item_name, item_id"),
+    @Index(name = "idx_inventory_updated_item", columnList = "last_updated, item_id"),
+    // Covers the per-location quantity sums behind the space view
+    @Index(name = "idx_inventory_location_quantity", columnList = "location, quantity")
+})
 public class Inventory {
 
     @Id
@@ -41,10 +58,25 @@ public class Inventory {
     @Temporal(TemporalType.TIMESTAMP)
     private Date lastUpdated;
 
+    // Optimistic locking; the column default lets existing rows start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     @OneToMany(mappedBy = "inventory", cascade = CascadeType.ALL)
     @JsonManagedReference
     private List<Shipment> shipments;
 
+    // Location and quantity as last read from / written to the database,
+    // used to work out the zone occupancy delta of an update
+    @Transient
+    @JsonIgnore
+    private String loadedLocation;
+
+    @Transient
+    @JsonIgnore
+    private Integer loadedQuantity;
+
 	public Integer getItemId() {
 		return itemId;
 	}
@@ -93,6 +125,14 @@ public class Inventory {
 		this.lastUpdated = lastUpdated;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public List<Shipment> getShipments() {
 		return shipments;
 	}
@@ -101,6 +141,22 @@ public class Inventory {
 		this.shipments = shipments;
 	}
 	
+	public String getLoadedLocation() {
+		return loadedLocation;
+	}
+
+	public Integer getLoadedQuantity() {
+		return loadedQuantity;
+	}
+
+	@PostLoad
+	@PostPersist
+	@PostUpdate
+	void captureLoadedState() {
+		this.loadedLocation = location;
+		this.loadedQuantity = quantity;
+	}
+	
 	@Override
 	public String toString() {
 		return "Inventory{" +
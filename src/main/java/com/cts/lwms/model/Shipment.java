@@ -2,19 +2,35 @@ package com.cts.lwms.model;
 
 import java.util.Date;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "Shipment")
+@Table(name = "Shipment",
+    indexes = {
+        @Index(name = "idx_shipment_item_status", columnList = "item_id, status"),
+        // Shipment search filters, each ending in the shipment_id keyset column
+        @Index(name = "idx_shipment_status_id", columnList = "status, shipment_id"),
+        @Index(name = "idx_shipment_lane_id", columnList = "origin, destination, shipment_id"),
+        @Index(name = "idx_shipment_destination_id", columnList = "destination, shipment_id"),
+        @Index(name = "idx_shipment_delivery_id", columnList = "expected_delivery_date, shipment_id"),
+        @Index(name = "idx_shipment_overdue_id", columnList = "overdue, shipment_id")
+    },
+    uniqueConstraints = @UniqueConstraint(name = "uk_shipment_received_item", columnNames = "received_item_id"))
 public class Shipment {
 
     @Id
@@ -33,6 +49,15 @@ public class Shipment {
     @JsonBackReference
     private Inventory inventory;
 
+    // The item id while status is "Received", otherwise null. Its unique constraint lets the
+    // database reject a second received shipment for the same item, even for concurrent receipts.
+    @JsonIgnore
+    private Integer receivedItemId;
+
+    // Set by the SLA monitor once expectedDeliveryDate passes while the shipment is still open
+    @Column(columnDefinition = "bit default 0 not null")
+    private boolean overdue;
+
 	public Integer getShipmentId() {
 		return shipmentId;
 	}
@@ -80,4 +105,22 @@ public class Shipment {
 	public void setInventory(Inventory inventory) {
 		this.inventory = inventory;
 	}
+
+	public Integer getReceivedItemId() {
+		return receivedItemId;
+	}
+
+	public boolean isOverdue() {
+		return overdue;
+	}
+
+	public void setOverdue(boolean overdue) {
+		this.overdue = overdue;
+	}
+
+	@PrePersist
+	@PreUpdate
+	void updateReceivedItemId() {
+		this.receivedItemId = "Received".equalsIgnoreCase(status) && inventory != null ? inventory.getItemId() : null;
+	}
 }
@@ -0,0 +1,65 @@
+package com.cts.lwms.model;
+
+import java.util.Date;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Number of shipments with a given status whose expected delivery falls in one UTC day or month.
+ * Kept current by ShipmentBucketService on every shipment write; the unique key is the upsert target.
+ */
+@Entity
+@Table(name = "ShipmentBucket",
+    uniqueConstraints = @UniqueConstraint(name = "uk_shipment_bucket", columnNames = {"resolution", "bucket_start", "status"}))
+public class ShipmentBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long bucketId;
+
+    private String resolution;
+
+    @Temporal(TemporalType.DATE)
+    private Date bucketStart;
+
+    private String status;
+    private long shipmentCount;
+
+	public Long getBucketId() {
+		return bucketId;
+	}
+	public void setBucketId(Long bucketId) {
+		this.bucketId = bucketId;
+	}
+	public String getResolution() {
+		return resolution;
+	}
+	public void setResolution(String resolution) {
+		this.resolution = resolution;
+	}
+	public Date getBucketStart() {
+		return bucketStart;
+	}
+	public void setBucketStart(Date bucketStart) {
+		this.bucketStart = bucketStart;
+	}
+	public String getStatus() {
+		return status;
+	}
+	public void setStatus(String status) {
+		this.status = status;
+	}
+	public long getShipmentCount() {
+		return shipmentCount;
+	}
+	public void setShipmentCount(long shipmentCount) {
+		this.shipmentCount = shipmentCount;
+	}
+}
@@ -1,9 +1,17 @@
 package com.cts.lwms.model;
 
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
@@ -49,5 +57,46 @@ public class Space {
 		this.zone = zone;
 	}
 	private String zone;
+
+    // Capacity held by open reservations; already subtracted from availableCapacity
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(columnDefinition = "int default 0 not null")
+    private int reservedCapacity;
+
+	public int getReservedCapacity() {
+		return reservedCapacity;
+	}
+
+    // Normalized zone name (trimmed, upper case); unique, so each zone has exactly one row
+    @JsonIgnore
+    @Column(unique = true)
+    private String zoneKey;
+
+	public String getZoneKey() {
+		return zoneKey;
+	}
+
+	@PrePersist
+	void assignZoneKey() {
+		this.zoneKey = normalizeZone(zone);
+	}
+
+	// Keyed rows follow renames; legacy rows left unkeyed as duplicates stay unkeyed
+	@PreUpdate
+	void updateZoneKey() {
+		if (zoneKey != null) {
+			this.zoneKey = normalizeZone(zone);
+		}
+	}
+
+	/**
+	 * Zone names are matched case-insensitively and ignoring surrounding whitespace
+	 */
+	public static String normalizeZone(String zone) {
+		if (zone == null || zone.trim().isEmpty()) {
+			return null;
+		}
+		return zone.trim().toUpperCase(Locale.ROOT);
+	}
 }
 
@@ -0,0 +1,105 @@
+package com.cts.lwms.model;
+
+import java.util.Date;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+/**
+ * A hold on capacity in one zone, typically for an inbound shipment. While HELD its quantity
+ * is counted in the zone's reservedCapacity; it ends as CONFIRMED, RELEASED or EXPIRED.
+ */
+@Entity
+@Table(name = "SpaceReservation", indexes = {
+    @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at"),
+    @Index(name = "idx_reservation_shipment_status", columnList = "shipment_id, status")
+})
+public class SpaceReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer reservationId;
+
+    private Integer spaceId;
+    private String zone;
+    private Integer shipmentId;
+    private int quantity;
+    private String status;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expiresAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date closedAt;
+
+	public Integer getReservationId() {
+		return reservationId;
+	}
+	public void setReservationId(Integer reservationId) {
+		this.reservationId = reservationId;
+	}
+	public Integer getSpaceId() {
+		return spaceId;
+	}
+	public void setSpaceId(Integer spaceId) {
+		this.spaceId = spaceId;
+	}
+	public String getZone() {
+		return zone;
+	}
+	public void setZone(String zone) {
+		this.zone = zone;
+	}
+	public Integer getShipmentId() {
+		return shipmentId;
+	}
+	public void setShipmentId(Integer shipmentId) {
+		this.shipmentId = shipmentId;
+	}
+	public int getQuantity() {
+		return quantity;
+	}
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+	public String getStatus() {
+		return status;
+	}
+	public void setStatus(String status) {
+		this.status = status;
+	}
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+	public Date getClosedAt() {
+		return closedAt;
+	}
+	public void setClosedAt(Date closedAt) {
+		this.closedAt = closedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "SpaceReservation [reservationId=" + reservationId + ", spaceId=" + spaceId + ", zone=" + zone
+				+ ", shipmentId=" + shipmentId + ", quantity=" + quantity + ", status=" + status
+				+ ", expiresAt=" + expiresAt + "]";
+	}
+}
@@ -0,0 +1,86 @@
+package com.cts.lwms.model;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One hour or day of a zone's utilization history (average and peak percentage).
+ * Written in batches by SpaceHistoryService; minute samples are kept in memory only.
+ * The open hour and day are stored too, as they stand, and completed after a restart.
+ */
+@Entity
+@Table(name = "SpaceUtilizationSample",
+    indexes = @Index(name = "idx_utilization_resolution_bucket", columnList = "resolution, bucket_start"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_utilization_space_bucket", columnNames = {"space_id", "resolution", "bucket_start"}))
+public class SpaceUtilizationSample {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sampleId;
+
+    private Integer spaceId;
+    private String resolution;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date bucketStart;
+
+    private float averageUtilization;
+    private float peakUtilization;
+
+    // Minute samples folded into the bucket so far; 0 on rows written before it was kept
+    @Column(columnDefinition = "int default 0 not null")
+    private int sampleCount;
+
+	public Long getSampleId() {
+		return sampleId;
+	}
+	public void setSampleId(Long sampleId) {
+		this.sampleId = sampleId;
+	}
+	public Integer getSpaceId() {
+		return spaceId;
+	}
+	public void setSpaceId(Integer spaceId) {
+		this.spaceId = spaceId;
+	}
+	public String getResolution() {
+		return resolution;
+	}
+	public void setResolution(String resolution) {
+		this.resolution = resolution;
+	}
+	public Date getBucketStart() {
+		return bucketStart;
+	}
+	public void setBucketStart(Date bucketStart) {
+		this.bucketStart = bucketStart;
+	}
+	public float getAverageUtilization() {
+		return averageUtilization;
+	}
+	public void setAverageUtilization(float averageUtilization) {
+		this.averageUtilization = averageUtilization;
+	}
+	public float getPeakUtilization() {
+		return peakUtilization;
+	}
+	public void setPeakUtilization(float peakUtilization) {
+		this.peakUtilization = peakUtilization;
+	}
+	public int getSampleCount() {
+		return sampleCount;
+	}
+	public void setSampleCount(int sampleCount) {
+		this.sampleCount = sampleCount;
+	}
+}
@@ -0,0 +1,26 @@
+package com.cts.lwms.repo;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cts.lwms.dto.ActivityDTO;
+import com.cts.lwms.model.ActivityLog;
+
+@Repository
+public interface ActivityLogRepo extends JpaRepository<ActivityLog, Long> {
+
+    /**
+     * Keyset page of activity older than beforeId, newest first, read straight into ActivityDTO.
+     * A null type matches every type.
+     */
+    @Query("SELECT new com.cts.lwms.dto.ActivityDTO(a.activityId, a.description, a.icon, a.createdAt, a.type, a.entityId) " +
+           "FROM ActivityLog a " +
+           "WHERE a.activityId < :beforeId AND (:type IS NULL OR a.type = :type) " +
+           "ORDER BY a.activityId DESC")
+    List<ActivityDTO> findPage(@Param("beforeId") Long beforeId, @Param("type") String type, Limit limit);
+}
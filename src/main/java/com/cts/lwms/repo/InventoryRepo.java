@@ -1,15 +1,19 @@
 package com.cts.lwms.repo;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cts.lwms.model.Inventory;
 
 @Repository
-public interface InventoryRepo extends JpaRepository<Inventory, Integer> {
+public interface InventoryRepo extends JpaRepository<Inventory, Integer>, JpaSpecificationExecutor<Inventory> {
     
     // Custom query to fetch inventory items with categories
     @Query("SELECT i FROM Inventory i LEFT JOIN FETCH i.category")
@@ -18,4 +22,28 @@ public interface InventoryRepo extends JpaRepository<Inventory, Integer> {
     // Custom query to fetch a single inventory item with category
     @Query("SELECT i FROM Inventory i LEFT JOIN FETCH i.category WHERE i.itemId = :itemId")
     Optional<Inventory> findByIdWithCategory(Integer itemId);
+
+    /**
+     * Total stocked quantity per location, used to recompute zone usage
+     * without loading Inventory entities
+     */
+    @Query("SELECT i.location, SUM(i.quantity) FROM Inventory i WHERE i.location IS NOT NULL GROUP BY i.location")
+    List<Object[]> sumQuantityByLocation();
+
+    /**
+     * Add delta to an item's quantity in one conditional UPDATE, refusing to go below zero.
+     * Returns 0 when the item does not exist or there is not enough stock.
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = COALESCE(i.quantity, 0) + :delta, i.lastUpdated = :now, " +
+           "i.version = i.version + 1 " +
+           "WHERE i.itemId = :itemId AND COALESCE(i.quantity, 0) + :delta >= 0")
+    int adjustQuantity(@Param("itemId") Integer itemId, @Param("delta") int delta, @Param("now") Date now);
+
+    /**
+     * Current quantity, location and version of one item, read as scalars so the
+     * persistence context cannot hand back a stale entity
+     */
+    @Query("SELECT i.quantity, i.location, i.version FROM Inventory i WHERE i.itemId = :itemId")
+    List<Object[]> findQuantityLocationAndVersion(@Param("itemId") Integer itemId);
 }
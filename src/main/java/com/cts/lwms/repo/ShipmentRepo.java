@@ -1,12 +1,17 @@
 package com.cts.lwms.repo;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.Optional;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cts.lwms.dto.ShipmentListDTO;
 import com.cts.lwms.model.Shipment;
 
 @Repository
@@ -25,4 +30,99 @@ public interface ShipmentRepo extends JpaRepository<Shipment, Integer> {
      */
     @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.inventory")
     List<Shipment> findAllWithInventory();
+
+    /**
+     * Whether the item already has a shipment in the given status,
+     * answered from the (itemId, status) index without loading shipments
+     */
+    boolean existsByInventory_ItemIdAndStatus(Integer itemId, String status);
+
+    /**
+     * [receivedItemId, shipmentId] for every keyed receipt, used by the startup backfill
+     */
+    @Query("SELECT s.receivedItemId, s.shipmentId FROM Shipment s WHERE s.receivedItemId IS NOT NULL")
+    List<Object[]> findReceivedItemKeys();
+
+    /**
+     * [shipmentId, itemId] of received shipments stored before receivedItemId existed
+     */
+    @Query("SELECT s.shipmentId, s.inventory.itemId FROM Shipment s " +
+           "WHERE s.status = 'Received' AND s.receivedItemId IS NULL ORDER BY s.shipmentId")
+    List<Object[]> findUnkeyedReceipts();
+
+    @Modifying
+    @Query("UPDATE Shipment s SET s.receivedItemId = :itemId WHERE s.shipmentId = :shipmentId")
+    int setReceivedItemId(@Param("shipmentId") Integer shipmentId, @Param("itemId") Integer itemId);
+
+    /**
+     * [shipmentId, status, origin, destination, overdue, expectedDeliveryDate] for the given ids;
+     * ids with no row are simply absent. Rows are locked, in id order, until the caller's
+     * transaction ends, so they cannot change between a set-based write's read and its UPDATE or DELETE.
+     */
+    @Query(value = "SELECT shipment_id, status, origin, destination, overdue, expected_delivery_date " +
+           "FROM shipment WHERE shipment_id IN :ids ORDER BY shipment_id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * [status, origin, destination, overdue, expectedDeliveryDate] of one shipment as stored,
+     * read under a row lock held until the caller's transaction ends; empty when there is no row
+     */
+    @Query(value = "SELECT status, origin, destination, overdue, expected_delivery_date " +
+           "FROM shipment WHERE shipment_id = :shipmentId FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStoredState(@Param("shipmentId") Integer shipmentId);
+
+    /**
+     * Ids of shipments currently in the given status, in id order, from the (status, shipmentId) index
+     */
+    @Query("SELECT s.shipmentId FROM Shipment s WHERE s.status = :status ORDER BY s.shipmentId")
+    List<Integer> findIdsByStatus(@Param("status") String status, Limit limit);
+
+    /**
+     * Set-based status change. Only rows still in one of fromStatuses are touched, so a row
+     * changed by someone else since it was read is left alone rather than overwritten.
+     */
+    @Modifying
+    @Query("UPDATE Shipment s SET s.status = :status, s.receivedItemId = NULL " +
+           "WHERE s.shipmentId IN :ids AND s.status IN :fromStatuses")
+    int updateStatus(@Param("ids") Collection<Integer> ids,
+                     @Param("status") String status,
+                     @Param("fromStatuses") Collection<String> fromStatuses);
+
+    /**
+     * [shipmentId, status, expectedDeliveryDate, overdue, origin, destination] for the given ids,
+     * used by the SLA monitor
+     */
+    @Query("SELECT s.shipmentId, s.status, s.expectedDeliveryDate, s.overdue, s.origin, s.destination " +
+           "FROM Shipment s WHERE s.shipmentId IN :ids")
+    List<Object[]> findDeadlinesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * findDeadlinesByIds under row locks, taken in id order, so the rows cannot change between
+     * the SLA monitor's check and its markOverdue
+     */
+    @Query(value = "SELECT shipment_id, status, expected_delivery_date, overdue, origin, destination " +
+           "FROM shipment WHERE shipment_id IN :ids ORDER BY shipment_id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockDeadlinesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Flags open shipments whose deadline has passed. Rows that were closed, rescheduled or
+     * already flagged since the timer was set are left untouched.
+     */
+    @Modifying
+    @Query("UPDATE Shipment s SET s.overdue = true WHERE s.shipmentId IN :ids AND s.overdue = false " +
+           "AND s.status IN :openStatuses AND s.expectedDeliveryDate <= :now")
+    int markOverdue(@Param("ids") Collection<Integer> ids,
+                    @Param("openStatuses") Collection<String> openStatuses,
+                    @Param("now") Date now);
+
+    /**
+     * Keyset page of open shipments flagged overdue, from the (overdue, shipmentId) index
+     */
+    @Query("SELECT new com.cts.lwms.dto.ShipmentListDTO(s.shipmentId, s.origin, s.destination, s.status, " +
+           "s.expectedDeliveryDate, s.inventory.itemId) FROM Shipment s " +
+           "WHERE s.overdue = true AND s.shipmentId > :afterId AND s.status IN :openStatuses " +
+           "ORDER BY s.shipmentId")
+    List<ShipmentListDTO> findOverdue(@Param("afterId") Integer afterId,
+                                      @Param("openStatuses") Collection<String> openStatuses,
+                                      Limit limit);
 }
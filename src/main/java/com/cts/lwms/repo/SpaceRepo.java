@@ -1,11 +1,93 @@
 package com.cts.lwms.repo;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cts.lwms.model.Space;
 
 @Repository
 public interface SpaceRepo extends JpaRepository<Space, Integer> {
-    // ...existing code...
+
+    /**
+     * Zone row by its normalized name, through the unique zone_key index
+     */
+    Optional<Space> findByZoneKey(String zoneKey);
+
+    @Query("SELECT s.spaceId FROM Space s WHERE s.zoneKey = :zoneKey")
+    Optional<Integer> findIdByZoneKey(@Param("zoneKey") String zoneKey);
+
+    /**
+     * [zoneKey, spaceId] for every keyed zone, used to seed the zone lookup map
+     */
+    @Query("SELECT s.zoneKey, s.spaceId FROM Space s WHERE s.zoneKey IS NOT NULL")
+    List<Object[]> findZoneKeys();
+
+    List<Space> findByZoneKeyIsNull();
+
+    /**
+     * [spaceId, zone, totalCapacity, usedCapacity] from the incrementally kept ledger; no Inventory reads
+     */
+    @Query("SELECT s.spaceId, s.zone, s.totalCapacity, s.usedCapacity FROM Space s")
+    List<Object[]> findCapacityLedger();
+
+    /**
+     * [spaceId, zone, totalCapacity, reservedCapacity, usedQuantity] for every zone, with the used quantity summed
+     * from Inventory in the same statement: the inner GROUP BY location walks the (location, quantity)
+     * index and each location is joined to its zone by normalized name. Reads only.
+     */
+    @Query(value = "SELECT s.space_id, s.zone, s.total_capacity, s.reserved_capacity, COALESCE(SUM(u.quantity), 0) " +
+           "FROM space s LEFT JOIN (" +
+           "SELECT location, SUM(quantity) AS quantity FROM inventory WHERE location IS NOT NULL GROUP BY location" +
+           ") u ON UPPER(TRIM(u.location)) = COALESCE(s.zone_key, UPPER(TRIM(s.zone))) " +
+           "GROUP BY s.space_id, s.zone, s.total_capacity, s.reserved_capacity ORDER BY s.space_id",
+           nativeQuery = true)
+    List<Object[]> findUsageFromInventory();
+
+    @Modifying
+    @Query("UPDATE Space s SET s.zoneKey = :zoneKey WHERE s.spaceId = :spaceId")
+    int setZoneKey(@Param("spaceId") Integer spaceId, @Param("zoneKey") String zoneKey);
+
+    /**
+     * Apply a used-capacity delta to one zone's ledger row; reserved capacity stays unavailable.
+     * availableCapacity is assigned first so it is derived from the pre-update usedCapacity
+     * (MySQL evaluates single-table SET assignments left to right).
+     */
+    @Modifying
+    @Query("UPDATE Space s SET " +
+           "s.availableCapacity = CASE WHEN COALESCE(s.totalCapacity, 0) - (COALESCE(s.usedCapacity, 0) + :delta) - s.reservedCapacity > 0 " +
+           "THEN COALESCE(s.totalCapacity, 0) - (COALESCE(s.usedCapacity, 0) + :delta) - s.reservedCapacity ELSE 0 END, " +
+           "s.usedCapacity = COALESCE(s.usedCapacity, 0) + :delta " +
+           "WHERE s.spaceId = :spaceId")
+    int applyUsedCapacityDelta(@Param("spaceId") Integer spaceId, @Param("delta") int delta);
+
+    /**
+     * Hold quantity in one zone for a reservation. The capacity check and the write are one
+     * statement under the row lock, so concurrent reservations cannot oversubscribe the zone:
+     * the held amount leaves availableCapacity and is counted in reservedCapacity.
+     * Returns 0 when the zone is missing or does not have that much available.
+     */
+    @Modifying
+    @Query("UPDATE Space s SET " +
+           "s.availableCapacity = s.availableCapacity - :quantity, " +
+           "s.reservedCapacity = s.reservedCapacity + :quantity " +
+           "WHERE s.spaceId = :spaceId AND s.availableCapacity >= :quantity")
+    int reserveCapacity(@Param("spaceId") Integer spaceId, @Param("quantity") int quantity);
+
+    /**
+     * Drop a reservation's hold from one zone and make the capacity available again.
+     * availableCapacity is assigned first, from the pre-update reservedCapacity.
+     */
+    @Modifying
+    @Query("UPDATE Space s SET " +
+           "s.availableCapacity = CASE WHEN COALESCE(s.totalCapacity, 0) - COALESCE(s.usedCapacity, 0) - (s.reservedCapacity - :quantity) > 0 " +
+           "THEN COALESCE(s.totalCapacity, 0) - COALESCE(s.usedCapacity, 0) - (s.reservedCapacity - :quantity) ELSE 0 END, " +
+           "s.reservedCapacity = CASE WHEN s.reservedCapacity > :quantity THEN s.reservedCapacity - :quantity ELSE 0 END " +
+           "WHERE s.spaceId = :spaceId")
+    int releaseReservedCapacity(@Param("spaceId") Integer spaceId, @Param("quantity") int quantity);
 }
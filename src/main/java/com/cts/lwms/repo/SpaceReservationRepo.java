@@ -0,0 +1,39 @@
+package com.cts.lwms.repo;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cts.lwms.model.SpaceReservation;
+
+@Repository
+public interface SpaceReservationRepo extends JpaRepository<SpaceReservation, Integer> {
+
+    List<SpaceReservation> findByShipmentIdOrderByReservationId(Integer shipmentId);
+
+    @Query("SELECT r.reservationId FROM SpaceReservation r WHERE r.shipmentId IN :shipmentIds AND r.status = 'HELD'")
+    List<Integer> findHeldIdsByShipmentIds(@Param("shipmentIds") Collection<Integer> shipmentIds);
+
+    /**
+     * Move a reservation out of HELD. Only one of confirm, release and expiry can win:
+     * the others find the status already changed and get 0.
+     */
+    @Modifying
+    @Query("UPDATE SpaceReservation r SET r.status = :status, r.closedAt = :now " +
+           "WHERE r.reservationId = :reservationId AND r.status = 'HELD'")
+    int close(@Param("reservationId") Integer reservationId, @Param("status") String status, @Param("now") Date now);
+
+    /**
+     * Same as close, for expiry: also requires the deadline to have passed
+     */
+    @Modifying
+    @Query("UPDATE SpaceReservation r SET r.status = 'EXPIRED', r.closedAt = :now " +
+           "WHERE r.reservationId = :reservationId AND r.status = 'HELD' AND r.expiresAt <= :now")
+    int expire(@Param("reservationId") Integer reservationId, @Param("now") Date now);
+}
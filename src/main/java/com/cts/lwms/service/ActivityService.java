@@ -0,0 +1,245 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ActivityDTO;
+import com.cts.lwms.dto.ActivityPageDTO;
+import com.cts.lwms.repo.ActivityLogRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only activity log behind the dashboard's recent activity and the /activity feed.
+ * Services record an entry once their transaction commits; the request thread only adds it to
+ * a bounded queue that a background thread batch-inserts into ActivityLog. The database assigns
+ * activityId, which the feed pages on; each entry carries a random entryKey so a retried batch
+ * skips entries that were already stored. Once a batch is stored its entries, with their ids,
+ * join a fixed-size ring of the latest entries, so /activity/recent is always the head of the
+ * feed. When the queue is full the entry is dropped.
+ */
+@Service
+public class ActivityService {
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_log (entry_key, type, entity_id, description, icon, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            // A retried batch may have been partly written already; entry_key is its only unique key
+            "ON DUPLICATE KEY UPDATE entry_key = entry_key";
+    private static final String IDS_SQL = "SELECT activity_id, entry_key FROM activity_log WHERE entry_key IN (%s)";
+    private static final int MAX_DESCRIPTION = 500;
+
+    @Value("${lwms.activity.recent-size:100}")
+    private int recentSize;
+
+    @Value("${lwms.activity.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${lwms.activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lwms.activity.flush-millis:1000}")
+    private long flushMillis;
+
+    @Autowired
+    private ActivityLogRepo activityLogRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong dropped = new AtomicLong();
+    // Latest stored entries in activityId order, oldest overwritten first; guarded by itself
+    private ActivityDTO[] recent;
+    private int recentNext;
+    private int recentCount;
+    private BlockingQueue<Entry> pending;
+    private ScheduledExecutorService writer;
+
+    private record Entry(String key, ActivityDTO activity) {}
+
+    // Runs after the repository, and so the schema, is ready
+    @PostConstruct
+    void init() {
+        recent = new ActivityDTO[recentSize];
+        pending = new ArrayBlockingQueue<>(queueCapacity);
+        List<ActivityDTO> latest = activityLogRepo.findPage(Long.MAX_VALUE, null, Limit.of(recentSize));
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            remember(latest.get(i));
+        }
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "activity-log");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Record an activity once the current transaction commits (immediately outside one).
+     * type is one of the ChangeEventService entity types; entityId may be null.
+     */
+    public void record(String type, Object entityId, String description) {
+        String id = entityId != null ? String.valueOf(entityId) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, id, description);
+                }
+            });
+        } else {
+            append(type, id, description);
+        }
+    }
+
+    /**
+     * Latest stored activity, newest first, from memory. Entries appear here once written,
+     * within lwms.activity.flush-millis of being recorded, and always carry their activityId.
+     */
+    public List<ActivityDTO> getRecent(Integer limit) {
+        int size = limit == null || limit <= 0 ? 10 : limit;
+        synchronized (recent) {
+            int count = Math.min(size, recentCount);
+            List<ActivityDTO> result = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                result.add(recent[(recentNext - i + recent.length) % recent.length]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Keyset page of stored activity, newest first, optionally of one type. Entries reach
+     * the table within lwms.activity.flush-millis of being recorded.
+     */
+    public ActivityPageDTO getFeed(String cursor, Integer limit, String type) {
+        String filter = type == null || type.isBlank() ? null : type.trim().toLowerCase(Locale.ROOT);
+        if (filter != null && !ChangeEventService.ENTITY_INVENTORY.equals(filter)
+                && !ChangeEventService.ENTITY_SHIPMENT.equals(filter)
+                && !ChangeEventService.ENTITY_SPACE.equals(filter)
+                && !ChangeEventService.ENTITY_MAINTENANCE.equals(filter)) {
+            throw new IllegalArgumentException("Unknown activity type: " + type);
+        }
+        int pageSize = limit == null || limit <= 0 ? 50 : Math.min(limit, 500);
+        List<ActivityDTO> rows = activityLogRepo.findPage(parseCursor(cursor), filter, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ActivityDTO> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).getActivityId()) : null;
+        return new ActivityPageDTO(items, nextCursor, hasMore);
+    }
+
+    // Cursors are the last activityId of the previous page
+    private static long parseCursor(String cursor) {
+        try {
+            return cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void append(String type, String entityId, String description) {
+        String text = description != null && description.length() > MAX_DESCRIPTION
+                ? description.substring(0, MAX_DESCRIPTION) : description;
+        ActivityDTO activity = new ActivityDTO(null, text, icon(type), new Date(), type, entityId);
+        if (!pending.offer(new Entry(UUID.randomUUID().toString(), activity))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void remember(ActivityDTO activity) {
+        synchronized (recent) {
+            recent[recentNext] = activity;
+            recentNext = (recentNext + 1) % recent.length;
+            recentCount = Math.min(recentCount + 1, recent.length);
+        }
+    }
+
+    private void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (pending.drainTo(batch, batchSize) > 0) {
+                List<Object[]> rows = new ArrayList<>(batch.size());
+                for (Entry entry : batch) {
+                    ActivityDTO activity = entry.activity();
+                    rows.add(new Object[] {entry.key(), activity.getType(), activity.getEntityId(),
+                            activity.getDescription(), activity.getIcon(), new Timestamp(activity.getTimestamp().getTime())});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                rememberStored(batch);
+                batch.clear();
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; keep what still fits and retry next time
+            System.out.println("Activity log write of " + batch.size() + " entries failed, retrying later: " + e.getMessage());
+            for (Entry entry : batch) {
+                if (!pending.offer(entry)) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            System.out.println("Activity log queue full, " + lost + " entries were not stored");
+        }
+    }
+
+    // Reads back the ids the database gave a stored batch and adds its entries to the ring in id order
+    private void rememberStored(List<Entry> batch) {
+        Map<String, ActivityDTO> byKey = new HashMap<>();
+        for (Entry entry : batch) {
+            byKey.put(entry.key(), entry.activity());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(byKey.size(), "?"));
+        List<ActivityDTO> stored = new ArrayList<>(batch.size());
+        jdbcTemplate.query(String.format(IDS_SQL, placeholders), rs -> {
+            ActivityDTO activity = byKey.get(rs.getString(2));
+            activity.setActivityId(rs.getLong(1));
+            stored.add(activity);
+        }, byKey.keySet().toArray());
+        stored.sort(Comparator.comparing(ActivityDTO::getActivityId));
+        stored.forEach(this::remember);
+    }
+
+    private static String icon(String type) {
+        if (ChangeEventService.ENTITY_INVENTORY.equals(type)) {
+            return "fas fa-boxes";
+        }
+        if (ChangeEventService.ENTITY_SHIPMENT.equals(type)) {
+            return "fas fa-shipping-fast";
+        }
+        if (ChangeEventService.ENTITY_SPACE.equals(type)) {
+            return "fas fa-map-marked-alt";
+        }
+        if (ChangeEventService.ENTITY_MAINTENANCE.equals(type)) {
+            return "fas fa-tools";
+        }
+        return "fas fa-info-circle";
+    }
+}
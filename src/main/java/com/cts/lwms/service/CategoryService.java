@@ -1,11 +1,21 @@
 package com.cts.lwms.service;
 
+import com.cts.lwms.cache.BoundedTtlCache;
+import com.cts.lwms.dto.CacheStatsDTO;
 import com.cts.lwms.model.Category;
+import com.cts.lwms.model.Inventory;
 import com.cts.lwms.repo.CategoryRepo;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -14,15 +24,69 @@ public class CategoryService {
     @Autowired
     private CategoryRepo categoryRepo;
 
+    @Autowired
+    private SpaceService spaceService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Value("${lwms.cache.category.max-size:1000}")
+    private int cacheMaxSize;
+
+    @Value("${lwms.cache.category.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Read-through caches; every category write clears all three
+    private BoundedTtlCache<Integer, Category> categoriesById;
+    private BoundedTtlCache<String, Category> categoriesByName;
+    private BoundedTtlCache<String, List<Category>> allCategories;
+
+    @PostConstruct
+    void initCaches() {
+        long ttlMillis = cacheTtlSeconds * 1000;
+        categoriesById = new BoundedTtlCache<>("categoriesById", cacheMaxSize, ttlMillis);
+        categoriesByName = new BoundedTtlCache<>("categoriesByName", cacheMaxSize, ttlMillis);
+        allCategories = new BoundedTtlCache<>("allCategories", 1, ttlMillis);
+    }
+
     public List<Category> getAllCategories() {
-        return categoryRepo.findAll();
+        return allCategories.get("all", key -> Collections.unmodifiableList(categoryRepo.findAll()));
+    }
+
+    public List<CacheStatsDTO> getCacheStats() {
+        return List.of(categoriesById.stats(), categoriesByName.stats(), allCategories.stats());
+    }
+
+    // Clear now, and again after commit so a read racing the transaction cannot keep the old row
+    private void invalidateCaches() {
+        clearCaches();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearCaches();
+                }
+            });
+        }
+    }
+
+    private void clearCaches() {
+        categoriesById.invalidateAll();
+        categoriesByName.invalidateAll();
+        allCategories.invalidateAll();
     }
 
     public Category addCategory(Category category) {
         if (categoryRepo.existsByCategoryName(category.getCategoryName())) {
             throw new RuntimeException("Category with name '" + category.getCategoryName() + "' already exists");
         }
-        return categoryRepo.save(category);
+        Category saved = categoryRepo.save(category);
+        invalidateCaches();
+        searchIndexService.indexCategory(saved);
+        return saved;
     }
 
     public Category updateCategory(Integer categoryId, Category category) {
@@ -31,26 +95,49 @@ public class CategoryService {
             Category updatedCategory = existingCategory.get();
             updatedCategory.setCategoryName(category.getCategoryName());
             updatedCategory.setDescription(category.getDescription());
-            return categoryRepo.save(updatedCategory);
+            Category saved = categoryRepo.save(updatedCategory);
+            invalidateCaches();
+            searchIndexService.indexCategory(saved);
+            return saved;
         }
         throw new RuntimeException("Category not found with id: " + categoryId);
     }
 
+    @Transactional
     public void deleteCategory(Integer categoryId) {
-        if (categoryRepo.existsById(categoryId)) {
-            categoryRepo.deleteById(categoryId);
+        Optional<Category> existing = categoryRepo.findById(categoryId);
+        if (existing.isPresent()) {
+            // Items cascade with the category; release their zone usage and index entries too
+            List<Inventory> items = existing.get().getInventoryItems();
+            if (items != null) {
+                for (Inventory item : items) {
+                    spaceService.applyInventoryDelta(item.getLoadedLocation(), item.getLoadedQuantity(), null, null);
+                    searchIndexService.removeInventory(item.getItemId());
+                    shipmentService.releaseShipmentsOf(item);
+                }
+            }
+            categoryRepo.delete(existing.get());
+            invalidateCaches();
+            searchIndexService.removeCategory(categoryId);
         } else {
             throw new RuntimeException("Category not found with id: " + categoryId);
         }
     }
 
     public Category getCategoryById(Integer categoryId) {
-        return categoryRepo.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + categoryId));
+        Category category = categoriesById.get(categoryId, id -> categoryRepo.findById(id).orElse(null));
+        if (category == null) {
+            throw new RuntimeException("Category not found with id: " + categoryId);
+        }
+        return category;
     }
 
     public Category getCategoryByName(String categoryName) {
-        return categoryRepo.findByCategoryName(categoryName)
-                .orElseThrow(() -> new RuntimeException("Category not found with name: " + categoryName));
+        Category category = categoriesByName.get(categoryName.toLowerCase(Locale.ROOT),
+                key -> categoryRepo.findByCategoryName(categoryName).orElse(null));
+        if (category == null) {
+            throw new RuntimeException("Category not found with name: " + categoryName);
+        }
+        return category;
     }
 } 
\ No newline at end of file
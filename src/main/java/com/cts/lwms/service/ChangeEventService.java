@@ -0,0 +1,63 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ChangeEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes small change events as Spring application events once the writing
+ * transaction has committed, so listeners never see changes that were rolled back.
+ */
+@Service
+public class ChangeEventService {
+    public static final String ENTITY_INVENTORY = "inventory";
+    public static final String ENTITY_SHIPMENT = "shipment";
+    public static final String ENTITY_SPACE = "space";
+    public static final String ENTITY_MAINTENANCE = "maintenance";
+
+    public static final String ACTION_CREATED = "created";
+    public static final String ACTION_UPDATED = "updated";
+    public static final String ACTION_DELETED = "deleted";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public void publish(String entityType, Integer entityId, String action, Map<String, Object> fields) {
+        // Copy now; the caller's values may change before commit
+        Map<String, Object> changed = fields != null ? new LinkedHashMap<>(fields) : new LinkedHashMap<>();
+        Runnable send = () -> eventPublisher.publishEvent(
+                new ChangeEventDTO(sequence.incrementAndGet(), entityType, entityId, action, changed, new Date()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send.run();
+                }
+            });
+        } else {
+            send.run();
+        }
+    }
+
+    /**
+     * Builds a field map from alternating names and values; unlike Map.of, null values are kept
+     */
+    public static Map<String, Object> fields(Object... namesAndValues) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            fields.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return fields;
+    }
+}
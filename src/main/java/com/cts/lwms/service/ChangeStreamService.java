@@ -0,0 +1,194 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ChangeEventDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans change events out to connected Server-Sent Events clients.
+ * Each client has its own bounded buffer drained by a virtual thread, so a slow
+ * browser only delays itself. When its buffer is full the oldest event is dropped
+ * and the client is later sent a "resync" event telling it to reload instead.
+ */
+@Service
+public class ChangeStreamService {
+    @Value("${lwms.events.client-buffer:256}")
+    private int clientBufferSize;
+
+    @Value("${lwms.events.max-clients:200}")
+    private int maxClients;
+
+    @Value("${lwms.events.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${lwms.events.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void startHeartbeats() {
+        // Keeps idle connections from being cut by proxies, and notices clients that went away
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeats.scheduleAtFixedRate(() -> clients.forEach(Client::heartbeat),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        clients.forEach(Client::close);
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe() throws IOException {
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Too many event stream clients");
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Client client = new Client(emitter);
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(e -> client.close());
+        emitter.send(SseEmitter.event().comment("connected"));
+        clients.add(client);
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    // Runs on the committing thread, so it only enqueues
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        for (Client client : clients) {
+            client.offer(event);
+        }
+    }
+
+    private final class Client {
+        private final SseEmitter emitter;
+        private final ArrayDeque<ChangeEventDTO> buffer = new ArrayDeque<>();
+        private long dropped;
+        private boolean heartbeatDue;
+        private boolean draining;
+        private boolean closed;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(ChangeEventDTO event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() >= clientBufferSize) {
+                    buffer.pollFirst();
+                    dropped++;
+                }
+                buffer.addLast(event);
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                heartbeatDue = true;
+                if (!startDrain()) {
+                    return;
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        // Only one drain per client runs at a time, which keeps sends ordered
+        private boolean startDrain() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                long missed;
+                boolean ping;
+                ChangeEventDTO next;
+                synchronized (this) {
+                    missed = dropped;
+                    dropped = 0;
+                    ping = heartbeatDue;
+                    heartbeatDue = false;
+                    next = buffer.pollFirst();
+                    if (closed || (next == null && missed == 0 && !ping)) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (missed > 0) {
+                        emitter.send(SseEmitter.event().name("resync").data(Map.of("dropped", missed), MediaType.APPLICATION_JSON));
+                    }
+                    if (next != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(next.getSequence()))
+                                .name("change")
+                                .data(next, MediaType.APPLICATION_JSON));
+                    } else if (ping && missed == 0) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client disconnected or the emitter already completed
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffer.clear();
+            }
+            clients.remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
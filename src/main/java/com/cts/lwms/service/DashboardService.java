@@ -0,0 +1,311 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ChangeEventDTO;
+import com.cts.lwms.dto.DashboardStatsDTO;
+import com.cts.lwms.dto.DashboardSummaryDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dashboard figures from a handful of aggregate queries that run at the same time on virtual threads.
+ * The whole load shares one deadline, so it takes as long as the slowest aggregate and never
+ * longer than lwms.dashboard.timeout-millis; a figure that misses the deadline or fails is
+ * shown as unavailable instead of holding up the others.
+ * Readers get the last good snapshot. Change events only mark it dirty; one background
+ * thread rebuilds it, at most once per min-refresh-millis, so bursts of writes cost one reload.
+ */
+@Service
+public class DashboardService {
+    private static final String UNAVAILABLE = "Unavailable";
+    private static final String UNKNOWN_STATUS = "Unknown";
+
+    @Value("${lwms.dashboard.timeout-millis:2000}")
+    private long timeoutMillis;
+
+    @Value("${lwms.dashboard.min-refresh-millis:1000}")
+    private long minRefreshMillis;
+
+    // Backstop for writes that publish no change event
+    @Value("${lwms.dashboard.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Same DataSource, with a statement timeout so the database also abandons a slow aggregate
+    private JdbcTemplate aggregates;
+    private ExecutorService executor;
+
+    private final AtomicReference<Figures> snapshot = new AtomicReference<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+    private volatile long lastRefreshStarted;
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Raw aggregate results behind both the dashboard page and /dashboard/summary.
+     * A null field is a query that failed or missed the deadline.
+     */
+    private record Figures(Long items, Map<String, Long> shipmentsByStatus, Long shipmentsThisMonth,
+                           Map<String, Object> space, Map<String, Long> maintenanceByStatus, Date loadedAt) {
+
+        boolean complete() {
+            return items != null && shipmentsByStatus != null && shipmentsThisMonth != null
+                    && space != null && maintenanceByStatus != null;
+        }
+
+        // Fields that came back missing are taken from the previous figures
+        Figures orElse(Figures previous) {
+            if (previous == null) {
+                return this;
+            }
+            return new Figures(
+                    items != null ? items : previous.items,
+                    shipmentsByStatus != null ? shipmentsByStatus : previous.shipmentsByStatus,
+                    shipmentsThisMonth != null ? shipmentsThisMonth : previous.shipmentsThisMonth,
+                    space != null ? space : previous.space,
+                    maintenanceByStatus != null ? maintenanceByStatus : previous.maintenanceByStatus,
+                    loadedAt);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        aggregates = new JdbcTemplate(jdbcTemplate.getDataSource());
+        aggregates.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dashboard-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::markDirty, maxAgeSeconds, maxAgeSeconds, TimeUnit.SECONDS);
+        markDirty();
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Dashboard cards from the last good snapshot, without touching the database
+     */
+    public DashboardStatsDTO getStats() {
+        Figures figures = figures();
+        DashboardStatsDTO stats = new DashboardStatsDTO();
+
+        stats.setTotalItems(figures.items() != null ? figures.items().intValue() : 0);
+        stats.setItemsChange(figures.items() != null ? "+" + figures.items() + " items" : UNAVAILABLE);
+
+        Long active = activeShipments(figures);
+        stats.setActiveShipments(active != null ? active.intValue() : 0);
+        stats.setShipmentsChange(active != null ? active + " active" : UNAVAILABLE);
+
+        // Space figures come from the zone ledger kept on the Space rows, not from Inventory
+        Map<String, Object> space = figures.space();
+        if (space == null) {
+            stats.setSpaceUtilization("0%");
+            stats.setSpaceChange(UNAVAILABLE);
+        } else if (((Number) space.get("zones")).longValue() == 0) {
+            stats.setSpaceUtilization("0%");
+            stats.setSpaceChange("No spaces configured");
+        } else {
+            double total = ((Number) space.get("total")).doubleValue();
+            double used = ((Number) space.get("used")).doubleValue();
+            int utilization = total > 0 ? (int) ((used / total) * 100) : 0;
+            stats.setSpaceUtilization(utilization + "%");
+            stats.setSpaceChange(utilization + "% utilized");
+        }
+
+        Long due = maintenanceCount(figures, "Scheduled");
+        stats.setMaintenanceDue(due != null ? due.intValue() : 0);
+        stats.setMaintenanceChange(due != null ? due + " due" : UNAVAILABLE);
+        return stats;
+    }
+
+    /**
+     * KPIs for the admin UI from the last good snapshot, without touching the database
+     */
+    public DashboardSummaryDTO getSummary() {
+        Figures figures = figures();
+        DashboardSummaryDTO summary = new DashboardSummaryDTO();
+        summary.setTotalItems(figures.items());
+        if (figures.shipmentsByStatus() != null) {
+            Map<String, Long> byStatus = new TreeMap<>();
+            for (Map.Entry<String, Long> entry : figures.shipmentsByStatus().entrySet()) {
+                String status = ShipmentService.canonicalStatus(entry.getKey());
+                byStatus.merge(status != null ? status : UNKNOWN_STATUS, entry.getValue(), Long::sum);
+            }
+            summary.setShipmentsByStatus(byStatus);
+            summary.setActiveShipments(activeShipments(figures));
+        }
+        summary.setShipmentsThisMonth(figures.shipmentsThisMonth());
+        if (figures.space() != null) {
+            long total = ((Number) figures.space().get("total")).longValue();
+            long used = ((Number) figures.space().get("used")).longValue();
+            summary.setZones(((Number) figures.space().get("zones")).longValue());
+            summary.setTotalCapacity(total);
+            summary.setUsedCapacity(used);
+            summary.setUtilizationPercentage(total > 0 ? Math.round(used * 1000.0 / total) / 10.0 : 0.0);
+        }
+        summary.setPendingMaintenance(maintenanceCount(figures, "Pending"));
+        summary.setCompletedMaintenance(maintenanceCount(figures, "Completed"));
+        summary.setGeneratedAt(figures.loadedAt());
+        return summary;
+    }
+
+    @EventListener
+    public void onChange(ChangeEventDTO event) {
+        markDirty();
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+        if (refreshQueued.compareAndSet(false, true)) {
+            long wait = Math.max(0, lastRefreshStarted + minRefreshMillis - System.currentTimeMillis());
+            try {
+                refresher.schedule(this::refresh, wait, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                refreshQueued.set(false); // Shutting down
+            }
+        }
+    }
+
+    // Only the very first read, before any snapshot exists, loads the figures itself
+    private Figures figures() {
+        Figures current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        snapshot.compareAndSet(null, loadFigures());
+        return snapshot.get();
+    }
+
+    private void refresh() {
+        refreshQueued.set(false);
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        lastRefreshStarted = System.currentTimeMillis();
+        try {
+            Figures fresh = loadFigures();
+            snapshot.set(fresh.orElse(snapshot.get()));
+            if (!fresh.complete()) {
+                markDirty(); // Try the missing figures again after the minimum interval
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Dashboard refresh failed, keeping the last snapshot: " + e.getMessage());
+            markDirty();
+        }
+    }
+
+    private static Long maintenanceCount(Figures figures, String status) {
+        if (figures.maintenanceByStatus() == null) {
+            return null;
+        }
+        long count = 0;
+        for (Map.Entry<String, Long> entry : figures.maintenanceByStatus().entrySet()) {
+            if (status.equalsIgnoreCase(entry.getKey() != null ? entry.getKey().trim() : null)) {
+                count += entry.getValue();
+            }
+        }
+        return count;
+    }
+
+    // Every aggregate is started at once; the whole load shares one deadline
+    private Figures loadFigures() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // The current UTC month, the same month boundaries the shipment buckets use
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        Timestamp monthStart = Timestamp.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp nextMonthStart = Timestamp.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        Future<Long> items = executor.submit(() -> aggregates.queryForObject("SELECT COUNT(*) FROM inventory", Long.class));
+        Future<Map<String, Long>> shipmentsByStatus = executor.submit(() -> countsByStatus(
+                "SELECT status, COUNT(*) FROM shipment GROUP BY status"));
+        Future<Long> shipmentsThisMonth = executor.submit(() -> aggregates.queryForObject(
+                "SELECT COUNT(*) FROM shipment WHERE expected_delivery_date >= ? AND expected_delivery_date < ?",
+                Long.class, monthStart, nextMonthStart));
+        Future<Map<String, Object>> space = executor.submit(() -> aggregates.queryForMap(
+                "SELECT COUNT(*) AS zones, COALESCE(SUM(total_capacity), 0) AS total, COALESCE(SUM(used_capacity), 0) AS used FROM space"));
+        Future<Map<String, Long>> maintenanceByStatus = executor.submit(() -> countsByStatus(
+                "SELECT completion_status, COUNT(*) FROM maintenance GROUP BY completion_status"));
+
+        return new Figures(
+                await(items, deadline, "inventory count"),
+                await(shipmentsByStatus, deadline, "shipment status counts"),
+                await(shipmentsThisMonth, deadline, "shipments this month"),
+                await(space, deadline, "space capacity"),
+                await(maintenanceByStatus, deadline, "maintenance status counts"),
+                new Date());
+    }
+
+    private Map<String, Long> countsByStatus(String sql) {
+        Map<String, Long> counts = new HashMap<>();
+        aggregates.query(sql, (ResultSet rs) -> {
+            counts.merge(rs.getString(1) != null ? rs.getString(1) : UNKNOWN_STATUS, rs.getLong(2), Long::sum);
+        });
+        return counts;
+    }
+
+    // Open shipments (Pending or In Transit), the same definition the SLA monitor uses; null when unavailable
+    private static Long activeShipments(Figures figures) {
+        if (figures.shipmentsByStatus() == null) {
+            return null;
+        }
+        long open = 0;
+        for (Map.Entry<String, Long> entry : figures.shipmentsByStatus().entrySet()) {
+            if (ShipmentSlaService.isOpen(entry.getKey())) {
+                open += entry.getValue();
+            }
+        }
+        return open;
+    }
+
+    // Result of one aggregate, or null when it failed or the shared deadline passed first
+    private <T> T await(Future<T> future, long deadline, String name) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.out.println("Dashboard " + name + " timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            System.out.println("Dashboard " + name + " failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        return null;
+    }
+}
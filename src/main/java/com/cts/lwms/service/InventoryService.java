@@ -1,63 +1,731 @@
 package com.cts.lwms.service;
 
+import com.cts.lwms.dto.InventoryDTO;
+import com.cts.lwms.dto.InventoryImportErrorDTO;
+import com.cts.lwms.dto.InventoryImportResultDTO;
+import com.cts.lwms.dto.InventoryPageDTO;
+import com.cts.lwms.model.Category;
 import com.cts.lwms.model.Inventory;
+import com.cts.lwms.repo.CategoryRepo;
 import com.cts.lwms.repo.InventoryRepo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class InventoryService {
+    // Keep the error report bounded for very large uploads; failedRows still counts every failure
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 1000;
+
+    private static final String INSERT_INVENTORY_SQL =
+            "INSERT INTO inventory (item_name, category_id, quantity, location, last_updated) VALUES (?, ?, ?, ?, ?)";
+
+    // Columns a page can be sorted by; each is backed by a (column, item_id) index
+    private static final Set<String> PAGE_SORT_FIELDS = Set.of("itemId", "itemName", "quantity", "lastUpdated");
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Flat export projection: no shipments, category reduced to id and name
+    private static final String EXPORT_INVENTORY_SQL =
+            "SELECT i.item_id, i.item_name, i.category_id, c.category_name, i.quantity, i.location, i.last_updated " +
+            "FROM inventory i LEFT JOIN category c ON c.category_id = i.category_id ORDER BY i.item_id";
+
+    private static final String[] EXPORT_COLUMNS =
+            {"itemId", "itemName", "categoryId", "categoryName", "quantity", "location", "lastUpdated"};
+
     @Autowired
     private InventoryRepo inventoryRepo;
     
+    @Autowired
+    private CategoryRepo categoryRepo;
+    
     @Autowired
     private SpaceService spaceService;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${lwms.inventory.import.batch-size:500}")
+    private int defaultImportBatchSize;
+
+    @Value("${lwms.inventory.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Transactional
     public Inventory addItem(Inventory item) {
         System.out.println("Adding inventory item: " + item);
         item.setLastUpdated(new java.util.Date());
         Inventory saved = inventoryRepo.save(item);
         System.out.println("Saved inventory item with ID: " + saved.getItemId());
         
-        // Update space utilization
-        spaceService.updateSpaceUtilization();
+        // Add the new item's quantity to its zone
+        spaceService.applyInventoryDelta(null, null, saved.getLocation(), saved.getQuantity());
+        searchIndexService.indexInventory(saved);
+        publishItemChange(saved, ChangeEventService.ACTION_CREATED);
         
         return saved;
     }
 
+    @Transactional
     public Inventory updateItem(Inventory item) {
         Optional<Inventory> existing = inventoryRepo.findById(item.getItemId());
         if (existing.isPresent()) {
             Inventory inv = existing.get();
+            // Zone and quantity as stored, before this update
+            String oldLocation = inv.getLoadedLocation();
+            Integer oldQuantity = inv.getLoadedQuantity();
+            
             inv.setItemName(item.getItemName());
             inv.setCategory(item.getCategory());
             inv.setQuantity(item.getQuantity());
             inv.setLocation(item.getLocation());
             inv.setLastUpdated(new java.util.Date());
+            Inventory saved = inventoryRepo.save(inv);
             
-            // Update space utilization
-            spaceService.updateSpaceUtilization();
+            // Move the quantity change between zones
+            spaceService.applyInventoryDelta(oldLocation, oldQuantity, saved.getLocation(), saved.getQuantity());
+            searchIndexService.indexInventory(saved);
+            publishItemChange(saved, ChangeEventService.ACTION_UPDATED);
             
-            return inventoryRepo.save(inv);
+            return saved;
         } else {
             throw new RuntimeException("Inventory item not found for update");
         }
     }
 
+    @Transactional
     public void removeItem(Integer itemId) {
-        inventoryRepo.deleteById(itemId);
-        
-        // Update space utilization
-        spaceService.updateSpaceUtilization();
+        Optional<Inventory> existing = inventoryRepo.findById(itemId);
+        if (existing.isPresent()) {
+            Inventory inv = existing.get();
+            shipmentService.releaseShipmentsOf(inv);
+            inventoryRepo.delete(inv);
+            
+            // Release the removed item's quantity from its zone
+            spaceService.applyInventoryDelta(inv.getLoadedLocation(), inv.getLoadedQuantity(), null, null);
+            searchIndexService.removeInventory(itemId);
+            changeEventService.publish(ChangeEventService.ENTITY_INVENTORY, itemId, ChangeEventService.ACTION_DELETED, null);
+            activityService.record(ChangeEventService.ENTITY_INVENTORY, itemId, "Item removed: " + inv.getItemName());
+        }
+    }
+
+    private void publishItemChange(Inventory item, String action) {
+        changeEventService.publish(ChangeEventService.ENTITY_INVENTORY, item.getItemId(), action,
+                ChangeEventService.fields(
+                        "itemName", item.getItemName(),
+                        "categoryId", item.getCategory() != null ? item.getCategory().getCategoryId() : null,
+                        "quantity", item.getQuantity(),
+                        "location", item.getLocation()));
+        activityService.record(ChangeEventService.ENTITY_INVENTORY, item.getItemId(),
+                (ChangeEventService.ACTION_CREATED.equals(action) ? "Item added: " : "Item updated: ")
+                        + item.getItemName() + " (Qty: " + item.getQuantity() + ")");
+    }
+
+    /**
+     * Add delta (negative to pick) to an item's quantity with a single conditional UPDATE.
+     * No entity is loaded or merged, so concurrent adjustments never overwrite each other,
+     * and the row lock is held only for this short transaction.
+     * Empty when there is no such item.
+     */
+    @Transactional
+    public Optional<InventoryDTO> adjustQuantity(Integer itemId, int delta) {
+        int updated = inventoryRepo.adjustQuantity(itemId, delta, new java.util.Date());
+        if (updated == 0) {
+            if (!inventoryRepo.existsById(itemId)) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Insufficient stock for item " + itemId + " to apply " + delta);
+        }
+
+        Object[] row = inventoryRepo.findQuantityLocationAndVersion(itemId).get(0);
+        String location = (String) row[1];
+        spaceService.applyInventoryDelta(location, 0, location, delta);
+        changeEventService.publish(ChangeEventService.ENTITY_INVENTORY, itemId, ChangeEventService.ACTION_UPDATED,
+                ChangeEventService.fields("quantity", row[0], "delta", delta));
+        activityService.record(ChangeEventService.ENTITY_INVENTORY, itemId,
+                "Stock adjusted: item " + itemId + " by " + (delta > 0 ? "+" : "") + delta + " (Qty: " + row[0] + ")");
+
+        InventoryDTO result = new InventoryDTO();
+        result.setItemId(itemId);
+        result.setQuantity((Integer) row[0]);
+        result.setLocation(location);
+        result.setVersion((Long) row[2]);
+        return Optional.of(result);
+    }
+
+    /**
+     * Bulk import of inventory rows from a CSV (with header) or NDJSON stream.
+     * Rows are read one line at a time and written with JDBC batch inserts; each batch
+     * commits on its own and applies one zone delta per touched zone. Invalid rows and
+     * failed batches are reported back instead of aborting the upload.
+     */
+    public InventoryImportResultDTO importItems(InputStream in, String format, Integer batchSize) throws IOException {
+        int size = batchSize != null && batchSize > 0 ? Math.min(batchSize, 5000) : defaultImportBatchSize;
+        boolean csv = "csv".equalsIgnoreCase(format);
+        InventoryImportResultDTO result = new InventoryImportResultDTO();
+        // Category name -> id, resolved once per distinct name (null when the name is unknown)
+        Map<String, Integer> categoryIds = new HashMap<>();
+        List<ImportRow> batch = new ArrayList<>(size);
+        Map<String, Integer> csvColumns = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (csv && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+
+            result.setTotalRows(result.getTotalRows() + 1);
+            try {
+                ImportRow row = csv ? parseCsvRow(line, csvColumns) : parseJsonRow(line);
+                row.lineNumber = lineNumber;
+                resolveImportCategory(row, categoryIds);
+                batch.add(row);
+            } catch (Exception e) {
+                recordImportError(result, lineNumber, e.getMessage());
+                continue;
+            }
+
+            if (batch.size() >= size) {
+                flushImportBatch(batch, result);
+            }
+        }
+        flushImportBatch(batch, result);
+
+        System.out.println("Inventory import finished: " + result);
+        return result;
+    }
+
+    private void flushImportBatch(List<ImportRow> batch, InventoryImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(
+                        connection -> connection.prepareStatement(INSERT_INVENTORY_SQL, Statement.RETURN_GENERATED_KEYS),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                ImportRow row = batch.get(i);
+                                ps.setString(1, row.itemName);
+                                if (row.categoryId != null) {
+                                    ps.setInt(2, row.categoryId);
+                                } else {
+                                    ps.setNull(2, Types.INTEGER);
+                                }
+                                ps.setInt(3, row.quantity);
+                                ps.setString(4, row.location);
+                                ps.setTimestamp(5, now);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return batch.size();
+                            }
+                        },
+                        keys);
+
+                // Generated ids come back in batch order
+                List<Map<String, Object>> keyList = keys.getKeyList();
+                for (int i = 0; i < batch.size() && i < keyList.size(); i++) {
+                    Object id = keyList.get(i).values().iterator().next();
+                    searchIndexService.indexInventory(((Number) id).intValue(), batch.get(i).itemName);
+                }
+
+                // One ledger update per zone for the whole batch
+                Map<String, Integer> zoneDeltas = new HashMap<>();
+                for (ImportRow row : batch) {
+                    if (row.location != null) {
+                        zoneDeltas.merge(row.location, row.quantity, Integer::sum);
+                    }
+                }
+                zoneDeltas.forEach((zone, quantity) -> spaceService.applyInventoryDelta(null, null, zone, quantity));
+                // One event per batch rather than per row
+                changeEventService.publish(ChangeEventService.ENTITY_INVENTORY, null, "imported",
+                        ChangeEventService.fields("rows", batch.size()));
+                activityService.record(ChangeEventService.ENTITY_INVENTORY, null, "Items imported: " + batch.size());
+            });
+            result.setImportedRows(result.getImportedRows() + batch.size());
+        } catch (DataAccessException e) {
+            String message = "Batch rejected by database: " + e.getMostSpecificCause().getMessage();
+            for (ImportRow row : batch) {
+                recordImportError(result, row.lineNumber, message);
+            }
+        }
+        result.setBatches(result.getBatches() + 1);
+        batch.clear();
+    }
+
+    private void recordImportError(InventoryImportResultDTO result, int lineNumber, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_IMPORT_ERRORS) {
+            result.getErrors().add(new InventoryImportErrorDTO(lineNumber, message));
+        }
+    }
+
+    private void resolveImportCategory(ImportRow row, Map<String, Integer> categoryIds) {
+        if (row.categoryId != null) {
+            // Explicit ids are checked once per distinct id so a bad id fails the row, not the batch
+            String key = "#" + row.categoryId;
+            if (!categoryIds.containsKey(key)) {
+                categoryIds.put(key, categoryRepo.existsById(row.categoryId) ? row.categoryId : null);
+            }
+            if (categoryIds.get(key) == null) {
+                throw new IllegalArgumentException("Category not found with id: " + row.categoryId);
+            }
+            return;
+        }
+        if (row.categoryName == null) {
+            return;
+        }
+        String key = row.categoryName.toLowerCase(Locale.ROOT);
+        if (!categoryIds.containsKey(key)) {
+            categoryIds.put(key, categoryRepo.findByCategoryName(row.categoryName)
+                    .map(Category::getCategoryId)
+                    .orElse(null));
+        }
+        Integer categoryId = categoryIds.get(key);
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Category not found with name: " + row.categoryName);
+        }
+        row.categoryId = categoryId;
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("itemname")) {
+            throw new IllegalArgumentException("CSV header must contain an itemName column");
+        }
+        return columns;
+    }
+
+    private ImportRow parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        ImportRow row = new ImportRow();
+        row.itemName = csvValue(values, columns, "itemname");
+        row.categoryName = csvValue(values, columns, "categoryname");
+        String categoryId = csvValue(values, columns, "categoryid");
+        row.categoryId = categoryId != null ? parseImportInt(categoryId, "categoryId") : null;
+        String quantity = csvValue(values, columns, "quantity");
+        row.quantity = quantity != null ? parseImportInt(quantity, "quantity") : null;
+        row.location = csvValue(values, columns, "location");
+        return validateImportRow(row);
+    }
+
+    private ImportRow parseJsonRow(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        ImportRow row = new ImportRow();
+        row.itemName = jsonText(node, "itemName");
+        row.categoryName = jsonText(node, "categoryName");
+        String categoryId = jsonText(node, "categoryId");
+        row.categoryId = categoryId != null ? parseImportInt(categoryId, "categoryId") : null;
+        String quantity = jsonText(node, "quantity");
+        row.quantity = quantity != null ? parseImportInt(quantity, "quantity") : null;
+        row.location = jsonText(node, "location");
+        return validateImportRow(row);
+    }
+
+    private ImportRow validateImportRow(ImportRow row) {
+        if (row.itemName == null) {
+            throw new IllegalArgumentException("itemName is required");
+        }
+        if (row.quantity == null || row.quantity < 0) {
+            throw new IllegalArgumentException("quantity must be a non-negative number");
+        }
+        return row;
+    }
+
+    private static String jsonText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseImportInt(String value, String field) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a valid number: " + value);
+        }
+    }
+
+    // Splits one CSV record; supports double-quoted fields with "" escapes (no embedded newlines)
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static class ImportRow {
+        int lineNumber;
+        String itemName;
+        String categoryName;
+        Integer categoryId;
+        Integer quantity;
+        String location;
+    }
+
+    /**
+     * Canonical export format name, ndjson when format is blank
+     */
+    public static String exportFormat(String format) {
+        if (format == null || format.isBlank() || "ndjson".equalsIgnoreCase(format.trim())) {
+            return "ndjson";
+        }
+        if ("csv".equalsIgnoreCase(format.trim())) {
+            return "csv";
+        }
+        throw new IllegalArgumentException("Unknown export format: " + format + ". Use ndjson or csv");
+    }
+
+    /**
+     * Stream every inventory row to out as NDJSON or CSV.
+     * Rows come from a forward-only, read-only cursor with a fixed fetch size and are written
+     * as they arrive, so memory use does not grow with the table.
+     * lastUpdated is an ISO-8601 UTC instant in both formats.
+     */
+    public void exportInventory(OutputStream out, String format) throws IOException {
+        boolean csv = "csv".equals(exportFormat(format));
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonGenerator json = csv ? null : objectMapper.getFactory().createGenerator(writer);
+        if (json != null) {
+            // Rows are newline-terminated by hand, one object per line; the generator's
+            // buffer goes to the writer only when it fills or at the end
+            json.setRootValueSeparator(null);
+        }
+        if (csv) {
+            writer.write(String.join(",", EXPORT_COLUMNS));
+            writer.write("\n");
+        }
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXPORT_INVENTORY_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(exportFetchSize);
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    if (csv) {
+                        writeCsvExportRow(writer, rs);
+                    } else {
+                        writeJsonExportRow(json, rs);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download
+            throw e.getCause();
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private static void writeJsonExportRow(JsonGenerator json, ResultSet rs) throws IOException {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("itemId", rs.getInt("item_id"));
+            json.writeStringField("itemName", rs.getString("item_name"));
+            writeNullableInt(json, "categoryId", rs.getInt("category_id"), rs.wasNull());
+            json.writeStringField("categoryName", rs.getString("category_name"));
+            writeNullableInt(json, "quantity", rs.getInt("quantity"), rs.wasNull());
+            json.writeStringField("location", rs.getString("location"));
+            Timestamp lastUpdated = rs.getTimestamp("last_updated");
+            if (lastUpdated != null) {
+                json.writeStringField("lastUpdated", lastUpdated.toInstant().toString());
+            } else {
+                json.writeNullField("lastUpdated");
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (SQLException e) {
+            throw new IOException("Failed to read inventory row", e);
+        }
+    }
+
+    private static void writeNullableInt(JsonGenerator json, String field, int value, boolean isNull) throws IOException {
+        if (isNull) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeCsvExportRow(Writer writer, ResultSet rs) throws IOException {
+        try {
+            Timestamp lastUpdated = rs.getTimestamp("last_updated");
+            writer.write(rs.getInt("item_id") + ",");
+            writer.write(csvEscape(rs.getString("item_name")) + ",");
+            writer.write(csvEscape(rs.getString("category_id")) + ",");
+            writer.write(csvEscape(rs.getString("category_name")) + ",");
+            writer.write(csvEscape(rs.getString("quantity")) + ",");
+            writer.write(csvEscape(rs.getString("location")) + ",");
+            writer.write(lastUpdated != null ? lastUpdated.toInstant().toString() : "");
+            writer.write("\n");
+        } catch (SQLException e) {
+            throw new IOException("Failed to read inventory row", e);
+        }
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
     public List<Inventory> viewInventory() {
         return inventoryRepo.findAllWithCategories();
     }
 
+    /**
+     * One keyset page of inventory, filtered server side.
+     * sort is itemId, itemName, quantity or lastUpdated, prefixed with '-' for descending;
+     * itemId breaks ties so the order is total. No OFFSET is used, so the cost of a page
+     * does not depend on how deep into the result it is.
+     */
+    public InventoryPageDTO viewInventoryPage(String cursor, Integer limit, Integer categoryId, String location,
+                                              Integer minQuantity, Integer maxQuantity, String sort) {
+        boolean descending = sort != null && sort.startsWith("-");
+        String sortField = sort == null || sort.isBlank() ? "itemId" : (descending ? sort.substring(1) : sort);
+        if (!PAGE_SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        int pageSize = limit == null || limit <= 0 ? 50 : Math.min(limit, MAX_PAGE_SIZE);
+        PageCursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor, sortField) : null;
+
+        Specification<Inventory> spec = (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("category", JoinType.LEFT);
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (categoryId != null) {
+                predicates.add(cb.equal(root.get("category").get("categoryId"), categoryId));
+            }
+            if (location != null && !location.isBlank()) {
+                predicates.add(cb.equal(root.get("location"), location.trim()));
+            }
+            if (minQuantity != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<Integer>get("quantity"), minQuantity));
+            }
+            if (maxQuantity != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<Integer>get("quantity"), maxQuantity));
+            }
+            if (after != null) {
+                predicates.add(keysetPredicate(cb, root.get(sortField), root.<Integer>get("itemId"), sortField, after, descending));
+            }
+            Path<Object> sortPath = root.get(sortField);
+            if ("itemId".equals(sortField)) {
+                query.orderBy(descending ? cb.desc(sortPath) : cb.asc(sortPath));
+            } else {
+                query.orderBy(descending ? cb.desc(sortPath) : cb.asc(sortPath),
+                        descending ? cb.desc(root.get("itemId")) : cb.asc(root.get("itemId")));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        // Fetch one extra row to learn whether another page follows
+        List<Inventory> rows = inventoryRepo.findBy(spec, q -> q.limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Inventory> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1), sortField) : null;
+        // Flat DTOs: serializing the entities would lazily load every item's shipments
+        List<InventoryDTO> page = new ArrayList<>(items.size());
+        for (Inventory item : items) {
+            page.add(toPageItem(item));
+        }
+        return new InventoryPageDTO(page, nextCursor, hasMore);
+    }
+
+    private static InventoryDTO toPageItem(Inventory item) {
+        InventoryDTO dto = new InventoryDTO();
+        dto.setItemId(item.getItemId());
+        dto.setItemName(item.getItemName());
+        if (item.getCategory() != null) {
+            dto.setCategoryId(item.getCategory().getCategoryId());
+            dto.setCategoryName(item.getCategory().getCategoryName());
+        }
+        dto.setQuantity(item.getQuantity());
+        dto.setLocation(item.getLocation());
+        dto.setVersion(item.getVersion());
+        dto.setLastUpdated(item.getLastUpdated());
+        return dto;
+    }
+
+    /*
+     * Rows strictly after the cursor in (sortField, itemId) order. MySQL sorts NULL lowest,
+     * so NULL sort values come first ascending and last descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keysetPredicate(CriteriaBuilder cb, Path sortPath, Path<Integer> idPath,
+                                             String sortField, PageCursor after, boolean descending) {
+        Predicate idAfter = descending ? cb.lessThan(idPath, after.itemId) : cb.greaterThan(idPath, after.itemId);
+        if ("itemId".equals(sortField)) {
+            return idAfter;
+        }
+        if (after.value == null) {
+            Predicate sameNull = cb.and(cb.isNull(sortPath), idAfter);
+            return descending ? sameNull : cb.or(sameNull, cb.isNotNull(sortPath));
+        }
+        Comparable value = after.value;
+        Predicate valueAfter = descending ? cb.lessThan(sortPath, value) : cb.greaterThan(sortPath, value);
+        Predicate sameValue = cb.and(cb.equal(sortPath, value), idAfter);
+        return descending ? cb.or(valueAfter, sameValue, cb.isNull(sortPath)) : cb.or(valueAfter, sameValue);
+    }
+
+    private static String encodeCursor(Inventory last, String sortField) {
+        Object value = switch (sortField) {
+            case "itemName" -> last.getItemName();
+            case "quantity" -> last.getQuantity();
+            case "lastUpdated" -> last.getLastUpdated() != null ? last.getLastUpdated().getTime() : null;
+            default -> null;
+        };
+        String raw = (value != null ? "=" + value : "") + "|" + last.getItemId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PageCursor decodeCursor(String cursor, String sortField) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            PageCursor decoded = new PageCursor();
+            decoded.itemId = Integer.valueOf(raw.substring(separator + 1));
+            String value = raw.substring(0, separator);
+            if (!value.isEmpty()) {
+                String text = value.substring(1);
+                decoded.value = switch (sortField) {
+                    case "quantity" -> Integer.valueOf(text);
+                    case "lastUpdated" -> new Date(Long.parseLong(text));
+                    default -> text;
+                };
+            }
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static class PageCursor {
+        Integer itemId;
+        Comparable<?> value;
+    }
+
     public Optional<Inventory> getItemById(Integer itemId) {
         return inventoryRepo.findByIdWithCategory(itemId);
     }
@@ -0,0 +1,272 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.LaneRebuildResultDTO;
+import com.cts.lwms.dto.LaneStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Shipment counts per (origin, destination) lane, kept in memory and updated with a delta
+ * on every shipment write, so /shipment/lanes never reads the Shipment table.
+ * Lanes are matched case-insensitively on trimmed names, as MySQL groups them.
+ * rebuild() recomputes everything with parallel GROUP BY queries over shipment id ranges.
+ */
+@Service
+public class LaneStatsService {
+    @Value("${lwms.lanes.rebuild-chunk-size:50000}")
+    private int rebuildChunkSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * One shipment's contribution to the lane figures
+     */
+    public record State(String origin, String destination, String status, boolean overdue) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLanes() {
+        LaneRebuildResultDTO result = rebuild(true);
+        System.out.println("Lane statistics loaded " + result.getLanes() + " lanes in " + result.getDurationMillis() + " ms");
+    }
+
+    /**
+     * Move one shipment from before to after once the caller's transaction commits.
+     * before is null for a new shipment, after is null for a deleted one.
+     */
+    public void applyChange(State before, State after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (before != null) {
+                add(lanes, before, -1);
+            }
+            if (after != null) {
+                add(lanes, after, 1);
+            }
+        });
+    }
+
+    /**
+     * Batch form of applyChange for set-based updates: every removed state is subtracted
+     * and every added state counted
+     */
+    public void applyChanges(List<State> removed, List<State> added) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        List<State> before = new ArrayList<>(removed);
+        List<State> after = new ArrayList<>(added);
+        afterCommit(() -> {
+            before.forEach(state -> add(lanes, state, -1));
+            after.forEach(state -> add(lanes, state, 1));
+        });
+    }
+
+    public List<LaneStatsDTO> getLaneStats(String origin, String destination) {
+        String originKey = origin != null && !origin.isBlank() ? key(origin) : null;
+        String destinationKey = destination != null && !destination.isBlank() ? key(destination) : null;
+        List<LaneStatsDTO> result = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            if ((originKey != null && !originKey.equals(key(lane.origin)))
+                    || (destinationKey != null && !destinationKey.equals(key(lane.destination)))) {
+                continue;
+            }
+            LaneStatsDTO dto = lane.toDTO();
+            if (dto.getTotal() > 0) {
+                result.add(dto);
+            }
+        }
+        result.sort(Comparator.comparingLong(LaneStatsDTO::getTotal).reversed());
+        return result;
+    }
+
+    /**
+     * Recompute every lane from the database and report lanes whose live figures drifted.
+     * The id range is split into chunks that are aggregated concurrently and then merged.
+     * Writes committed while the scan runs may or may not be counted, so run it when quiet.
+     */
+    public LaneRebuildResultDTO rebuild(boolean apply) {
+        long start = System.currentTimeMillis();
+        LaneRebuildResultDTO result = new LaneRebuildResultDTO();
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(shipment_id) AS lo, MAX(shipment_id) AS hi FROM shipment");
+        Map<String, Lane> rebuilt = new ConcurrentHashMap<>();
+
+        if (bounds.get("lo") != null) {
+            long lo = ((Number) bounds.get("lo")).longValue();
+            long hi = ((Number) bounds.get("hi")).longValue();
+            List<Future<Map<String, Lane>>> parts = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long from = lo; from <= hi; from += rebuildChunkSize) {
+                    long chunkFrom = from;
+                    long chunkTo = Math.min(hi, from + rebuildChunkSize - 1);
+                    parts.add(executor.submit(() -> aggregateRange(chunkFrom, chunkTo)));
+                }
+                for (Future<Map<String, Lane>> part : parts) {
+                    part.get().values().forEach(lane -> merge(rebuilt, lane));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Lane rebuild interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Lane rebuild failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            result.setChunks(parts.size());
+        }
+
+        Map<String, Lane> live = lanes;
+        for (String laneKey : union(live, rebuilt)) {
+            Lane current = live.get(laneKey);
+            Lane recomputed = rebuilt.get(laneKey);
+            if (!sameFigures(current, recomputed)) {
+                Lane named = recomputed != null ? recomputed : current;
+                result.getDriftedLanes().add(named.origin + " -> " + named.destination);
+            }
+        }
+        if (apply) {
+            lanes = rebuilt;
+        }
+        result.setLanes(rebuilt.size());
+        result.setApplied(apply);
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private Map<String, Lane> aggregateRange(long from, long to) {
+        Map<String, Lane> part = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT MIN(origin), MIN(destination), status, overdue, COUNT(*) FROM shipment " +
+                "WHERE shipment_id BETWEEN ? AND ? " +
+                "GROUP BY LOWER(TRIM(origin)), LOWER(TRIM(destination)), status, overdue",
+                (ResultSet rs) -> {
+                    State state = new State(rs.getString(1), rs.getString(2), rs.getString(3), rs.getBoolean(4));
+                    add(part, state, rs.getLong(5));
+                },
+                from, to);
+        return part;
+    }
+
+    // ---- counters -----------------------------------------------------------
+
+    private static void add(Map<String, Lane> target, State state, long count) {
+        Lane lane = target.computeIfAbsent(laneKey(state.origin(), state.destination()),
+                k -> new Lane(trimmed(state.origin()), trimmed(state.destination())));
+        lane.add(state, count);
+    }
+
+    private static void merge(Map<String, Lane> target, Lane part) {
+        Lane lane = target.computeIfAbsent(laneKey(part.origin, part.destination), k -> new Lane(part.origin, part.destination));
+        synchronized (lane) {
+            part.statusCounts.forEach((status, count) -> lane.statusCounts.merge(status, count, Long::sum));
+            lane.total += part.total;
+            lane.completed += part.completed;
+            lane.onTime += part.onTime;
+            lane.overdue += part.overdue;
+        }
+    }
+
+    private static boolean sameFigures(Lane a, Lane b) {
+        LaneStatsDTO x = a != null ? a.toDTO() : null;
+        LaneStatsDTO y = b != null ? b.toDTO() : null;
+        boolean xEmpty = x == null || x.getTotal() == 0;
+        boolean yEmpty = y == null || y.getTotal() == 0;
+        if (xEmpty || yEmpty) {
+            return xEmpty && yEmpty;
+        }
+        return x.getTotal() == y.getTotal() && x.getCompleted() == y.getCompleted() && x.getOnTime() == y.getOnTime()
+                && x.getOverdue() == y.getOverdue() && x.getStatusCounts().equals(y.getStatusCounts());
+    }
+
+    private static List<String> union(Map<String, Lane> a, Map<String, Lane> b) {
+        List<String> keys = new ArrayList<>(a.keySet());
+        b.keySet().stream().filter(k -> !a.containsKey(k)).forEach(keys::add);
+        return keys;
+    }
+
+    private static boolean isCompleted(String status) {
+        return "Delivered".equals(status) || "Received".equals(status);
+    }
+
+    private static String laneKey(String origin, String destination) {
+        return key(origin) + "\u0000" + key(destination);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimmed(String name) {
+        return name == null ? null : name.trim();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Lane {
+        final String origin;
+        final String destination;
+        final Map<String, Long> statusCounts = new TreeMap<>();
+        long total;
+        long completed;
+        long onTime;
+        long overdue;
+
+        Lane(String origin, String destination) {
+            this.origin = origin;
+            this.destination = destination;
+        }
+
+        synchronized void add(State state, long count) {
+            String status = ShipmentService.canonicalStatus(state.status());
+            statusCounts.merge(status != null ? status : "Unknown", count, Long::sum);
+            statusCounts.values().removeIf(c -> c == 0);
+            total += count;
+            if (isCompleted(status)) {
+                completed += count;
+                if (!state.overdue()) {
+                    onTime += count;
+                }
+            } else if (state.overdue() && ShipmentSlaService.isOpen(status)) {
+                overdue += count;
+            }
+        }
+
+        synchronized LaneStatsDTO toDTO() {
+            return new LaneStatsDTO(origin, destination, total, new TreeMap<>(statusCounts), completed, onTime, overdue);
+        }
+    }
+}
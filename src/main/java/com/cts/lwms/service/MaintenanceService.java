@@ -13,12 +13,35 @@ public class MaintenanceService {
     @Autowired
     private MaintenanceScheduleRepo maintenanceScheduleRepo;
 
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private ActivityService activityService;
+
     public MaintenanceSchedule scheduleMaintenance(MaintenanceSchedule schedule) {
-        return maintenanceScheduleRepo.save(schedule);
+        MaintenanceSchedule saved = maintenanceScheduleRepo.save(schedule);
+        publishScheduleChange(saved, ChangeEventService.ACTION_CREATED);
+        return saved;
     }
 
     public MaintenanceSchedule updateSchedule(MaintenanceSchedule schedule) {
-        return maintenanceScheduleRepo.save(schedule);
+        MaintenanceSchedule saved = maintenanceScheduleRepo.save(schedule);
+        publishScheduleChange(saved, ChangeEventService.ACTION_UPDATED);
+        return saved;
+    }
+
+    private void publishScheduleChange(MaintenanceSchedule schedule, String action) {
+        changeEventService.publish(ChangeEventService.ENTITY_MAINTENANCE, schedule.getScheduleId(), action,
+                ChangeEventService.fields(
+                        "equipmentId", schedule.getEquipmentId(),
+                        "taskDescription", schedule.getTaskDescription(),
+                        "scheduledDate", schedule.getScheduledDate(),
+                        "completionStatus", schedule.getCompletionStatus()));
+        activityService.record(ChangeEventService.ENTITY_MAINTENANCE, schedule.getScheduleId(),
+                ChangeEventService.ACTION_CREATED.equals(action)
+                        ? "Maintenance scheduled: " + schedule.getTaskDescription()
+                        : "Maintenance " + schedule.getCompletionStatus() + ": " + schedule.getTaskDescription());
     }
 
     public List<MaintenanceSchedule> viewSchedule() {
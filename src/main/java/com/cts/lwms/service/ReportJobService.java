@@ -0,0 +1,465 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ReportJobDTO;
+import com.cts.lwms.dto.ReportJobRequestDTO;
+import com.cts.lwms.model.Report;
+import com.cts.lwms.repo.ReportRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report generation as background jobs. submit() returns at once with a job id; a fixed pool of
+ * lwms.reports.workers threads runs the reports from a bounded queue, so at most that many
+ * database connections are ever busy with reports and the rest of the pool stays free for
+ * regular traffic. A full queue rejects new jobs instead of growing.
+ * Each report streams its rows through a forward-only cursor, updating the job's progress and
+ * checking for cancellation on every row, and is saved as a Report when done.
+ * Jobs are kept in memory and forgotten lwms.reports.retention-minutes after they finish.
+ */
+@Service
+public class ReportJobService {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    private static final List<String> REPORT_TYPES = List.of("inventory", "shipment", "space", "maintenance");
+    private static final int TOP_LANES = 10;
+
+    @Value("${lwms.reports.workers:2}")
+    private int workers;
+
+    @Value("${lwms.reports.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${lwms.reports.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${lwms.reports.max-listed-rows:10000}")
+    private int maxListedRows;
+
+    @Value("${lwms.reports.low-stock-threshold:10}")
+    private int lowStockThreshold;
+
+    @Value("${lwms.reports.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportRepo reportRepo;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "report-worker-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a report and return its job at once.
+     * Throws RejectedExecutionException when lwms.reports.queue-capacity jobs are already waiting.
+     */
+    public ReportJobDTO submit(ReportJobRequestDTO request) {
+        String type = request.getReportType() == null ? "" : request.getReportType().trim().toLowerCase(Locale.ROOT);
+        if (!REPORT_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unknown report type: " + request.getReportType()
+                    + ". Use inventory, shipment, space or maintenance");
+        }
+        if (request.getDays() != null && request.getDays() <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        pruneFinished();
+
+        Job job = new Job(type, request.getDays());
+        job.task = new FutureTask<>(() -> run(job), null);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(job.task);
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    public Optional<ReportJobDTO> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? Optional.of(job.toDTO()) : Optional.empty();
+    }
+
+    /**
+     * Known jobs, newest first
+     */
+    public List<ReportJobDTO> getJobs() {
+        pruneFinished();
+        List<ReportJobDTO> result = new ArrayList<>();
+        jobs.values().forEach(job -> result.add(job.toDTO()));
+        result.sort(Comparator.comparing(ReportJobDTO::getSubmittedAt).reversed());
+        return result;
+    }
+
+    /**
+     * Cancel a job. A queued job is dropped at once; a running one stops at its next row and
+     * saves nothing. Throws IllegalStateException when the job has already finished.
+     */
+    public Optional<ReportJobDTO> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (job) {
+            if (QUEUED.equals(job.status)) {
+                job.finish(CANCELLED, null, null);
+                executor.remove(job.task);
+            } else if (RUNNING.equals(job.status)) {
+                job.cancelRequested = true;
+            } else {
+                throw new IllegalStateException("Report job " + jobId + " is already " + job.status);
+            }
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    private void run(Job job) {
+        if (!job.start()) {
+            return; // Cancelled while queued
+        }
+        try {
+            String details = switch (job.type) {
+                case "inventory" -> inventoryReport(job);
+                case "shipment" -> shipmentReport(job);
+                case "space" -> spaceReport(job);
+                default -> maintenanceReport(job);
+            };
+            job.checkCancelled();
+            Report saved = reportRepo.save(new Report(job.type, details));
+            job.finish(COMPLETED, saved.getReportId(), null);
+            System.out.println("Report job " + job.id + " (" + job.type + ") saved as report " + saved.getReportId()
+                    + " after " + job.processed.get() + " rows");
+        } catch (CancellationException e) {
+            job.finish(CANCELLED, null, null);
+            System.out.println("Report job " + job.id + " (" + job.type + ") cancelled");
+        } catch (RuntimeException e) {
+            job.finish(FAILED, null, e.getMessage());
+            System.out.println("Report job " + job.id + " (" + job.type + ") failed: " + e.getMessage());
+        }
+    }
+
+    private void pruneFinished() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    // ---- reports ------------------------------------------------------------
+
+    private String inventoryReport(Job job) {
+        job.total = count("SELECT COUNT(*) FROM inventory");
+        long[] totals = new long[3]; // items, quantity, low stock
+        Map<String, long[]> byCategory = new TreeMap<>();
+        Map<String, long[]> byLocation = new TreeMap<>();
+        StringBuilder listing = new StringBuilder();
+        stream(job, "SELECT i.item_id, i.item_name, c.category_name, i.quantity, i.location " +
+                    "FROM inventory i LEFT JOIN category c ON c.category_id = i.category_id ORDER BY i.item_id",
+                rs -> {
+                    int quantity = rs.getInt(4);
+                    totals[0]++;
+                    totals[1] += quantity;
+                    if (quantity <= lowStockThreshold) {
+                        totals[2]++;
+                    }
+                    addTo(byCategory, orNone(rs.getString(3)), quantity);
+                    addTo(byLocation, orNone(rs.getString(5)), quantity);
+                    if (totals[0] <= maxListedRows) {
+                        listing.append("  ").append(rs.getInt(1)).append(" | ").append(rs.getString(2))
+                                .append(" | ").append(orNone(rs.getString(3))).append(" | ").append(quantity)
+                                .append(" | ").append(orNone(rs.getString(5))).append("\n");
+                    }
+                });
+
+        StringBuilder out = header(job, false);
+        out.append("Items: ").append(totals[0]).append(", total quantity: ").append(totals[1]).append("\n");
+        out.append("Low stock (quantity <= ").append(lowStockThreshold).append("): ").append(totals[2]).append("\n");
+        appendGroups(out, "By category (items, quantity)", byCategory);
+        appendGroups(out, "By location (items, quantity)", byLocation);
+        appendListing(out, "Items (itemId | name | category | quantity | location)", listing, totals[0]);
+        return out.toString();
+    }
+
+    private String shipmentReport(Job job) {
+        Timestamp since = since(job);
+        String where = since != null ? " WHERE expected_delivery_date >= ?" : "";
+        Object[] args = since != null ? new Object[] {since} : new Object[0];
+        job.total = count("SELECT COUNT(*) FROM shipment" + where, args);
+        long[] totals = new long[2]; // shipments, open and overdue
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byLane = new TreeMap<>();
+        StringBuilder listing = new StringBuilder();
+        stream(job, "SELECT shipment_id, origin, destination, status, expected_delivery_date, overdue FROM shipment" +
+                    where + " ORDER BY shipment_id",
+                rs -> {
+                    String status = ShipmentService.canonicalStatus(rs.getString(4));
+                    boolean overdue = rs.getBoolean(6) && ShipmentSlaService.isOpen(status);
+                    String lane = orNone(rs.getString(2)) + " -> " + orNone(rs.getString(3));
+                    totals[0]++;
+                    if (overdue) {
+                        totals[1]++;
+                    }
+                    byStatus.merge(orNone(status), 1L, Long::sum);
+                    byLane.merge(lane, 1L, Long::sum);
+                    if (totals[0] <= maxListedRows) {
+                        listing.append("  ").append(rs.getInt(1)).append(" | ").append(lane).append(" | ")
+                                .append(orNone(status)).append(" | ").append(day(rs.getTimestamp(5)))
+                                .append(overdue ? " | OVERDUE" : "").append("\n");
+                    }
+                }, args);
+
+        StringBuilder out = header(job, true);
+        out.append("Shipments: ").append(totals[0]).append(", open and overdue: ").append(totals[1]).append("\n");
+        out.append("\nBy status:\n");
+        byStatus.forEach((status, count) -> out.append("  ").append(status).append(": ").append(count).append("\n"));
+        out.append("\nBusiest lanes:\n");
+        byLane.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_LANES)
+                .forEach(e -> out.append("  ").append(e.getKey()).append(": ").append(e.getValue()).append("\n"));
+        appendListing(out, "Shipments (shipmentId | lane | status | expected delivery)", listing, totals[0]);
+        return out.toString();
+    }
+
+    private String spaceReport(Job job) {
+        job.total = count("SELECT COUNT(*) FROM space");
+        long[] totals = new long[4]; // total, used, reserved, available
+        StringBuilder zones = new StringBuilder();
+        stream(job, "SELECT zone, total_capacity, used_capacity, reserved_capacity, available_capacity FROM space ORDER BY zone",
+                rs -> {
+                    int total = rs.getInt(2);
+                    int used = rs.getInt(3);
+                    totals[0] += total;
+                    totals[1] += used;
+                    totals[2] += rs.getInt(4);
+                    totals[3] += rs.getInt(5);
+                    zones.append("  ").append(rs.getString(1)).append(": capacity ").append(total)
+                            .append(", used ").append(used).append(", reserved ").append(rs.getInt(4))
+                            .append(", available ").append(rs.getInt(5))
+                            .append(" (").append(percent(used, total)).append("% utilized)\n");
+                });
+
+        StringBuilder out = header(job, false);
+        out.append("Zones: ").append(job.processed.get()).append("\n");
+        out.append("Capacity: ").append(totals[0]).append(", used ").append(totals[1])
+                .append(", reserved ").append(totals[2]).append(", available ").append(totals[3])
+                .append(" (").append(percent(totals[1], totals[0])).append("% utilized)\n");
+        out.append("\nBy zone:\n").append(zones);
+        return out.toString();
+    }
+
+    private String maintenanceReport(Job job) {
+        Timestamp since = since(job);
+        String where = since != null ? " WHERE scheduled_date >= ?" : "";
+        Object[] args = since != null ? new Object[] {since} : new Object[0];
+        job.total = count("SELECT COUNT(*) FROM maintenance" + where, args);
+        long now = System.currentTimeMillis();
+        long[] totals = new long[2]; // tasks, past due and not completed
+        Map<String, Long> byStatus = new TreeMap<>();
+        StringBuilder listing = new StringBuilder();
+        stream(job, "SELECT schedule_id, equipment_id, task_description, scheduled_date, completion_status FROM maintenance" +
+                    where + " ORDER BY schedule_id",
+                rs -> {
+                    String status = rs.getString(5) != null ? rs.getString(5).trim() : null;
+                    Timestamp scheduled = rs.getTimestamp(4);
+                    boolean pastDue = scheduled != null && scheduled.getTime() < now && !"Completed".equalsIgnoreCase(status);
+                    totals[0]++;
+                    if (pastDue) {
+                        totals[1]++;
+                    }
+                    byStatus.merge(orNone(status), 1L, Long::sum);
+                    if (totals[0] <= maxListedRows) {
+                        listing.append("  ").append(rs.getInt(1)).append(" | ").append(rs.getObject(2)).append(" | ")
+                                .append(rs.getString(3)).append(" | ").append(day(scheduled)).append(" | ")
+                                .append(orNone(status)).append(pastDue ? " | PAST DUE" : "").append("\n");
+                    }
+                }, args);
+
+        StringBuilder out = header(job, true);
+        out.append("Tasks: ").append(totals[0]).append(", past due and not completed: ").append(totals[1]).append("\n");
+        out.append("\nBy status:\n");
+        byStatus.forEach((status, count) -> out.append("  ").append(status).append(": ").append(count).append("\n"));
+        appendListing(out, "Tasks (scheduleId | equipmentId | task | scheduled | status)", listing, totals[0]);
+        return out.toString();
+    }
+
+    // Rows come from a forward-only, read-only cursor with a fixed fetch size
+    private void stream(Job job, String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            job.checkCancelled();
+            handler.processRow(rs);
+            job.processed.incrementAndGet();
+        });
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0;
+    }
+
+    private static StringBuilder header(Job job, boolean dated) {
+        StringBuilder out = new StringBuilder();
+        out.append("Report Type: ").append(job.type).append("\n");
+        out.append("Generated on: ").append(new Date()).append("\n");
+        if (dated) {
+            out.append("Period: ").append(job.days != null ? "last " + job.days + " days" : "all").append("\n");
+        }
+        return out;
+    }
+
+    private static void appendGroups(StringBuilder out, String title, Map<String, long[]> groups) {
+        out.append("\n").append(title).append(":\n");
+        groups.forEach((name, figures) -> out.append("  ").append(name).append(": ")
+                .append(figures[0]).append(", ").append(figures[1]).append("\n"));
+    }
+
+    private void appendListing(StringBuilder out, String title, StringBuilder listing, long rows) {
+        out.append("\n").append(title).append(":\n").append(listing);
+        if (rows > maxListedRows) {
+            out.append("  ... ").append(rows - maxListedRows).append(" more not listed\n");
+        }
+    }
+
+    private static void addTo(Map<String, long[]> groups, String name, int quantity) {
+        long[] figures = groups.computeIfAbsent(name, k -> new long[2]);
+        figures[0]++;
+        figures[1] += quantity;
+    }
+
+    private static Timestamp since(Job job) {
+        return job.days != null ? new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(job.days)) : null;
+    }
+
+    private static String day(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toLocalDate().toString() : "-";
+    }
+
+    private static long percent(long part, long whole) {
+        return whole > 0 ? Math.round(part * 100.0 / whole) : 0;
+    }
+
+    private static String orNone(String value) {
+        return value == null || value.isBlank() ? "(none)" : value.trim();
+    }
+
+    private static class Job {
+        final String id = UUID.randomUUID().toString();
+        final String type;
+        final Integer days;
+        final Date submittedAt = new Date();
+        final AtomicLong processed = new AtomicLong();
+        volatile long total;
+        volatile boolean cancelRequested;
+        FutureTask<Void> task;
+        // Guarded by this
+        String status = QUEUED;
+        Date startedAt;
+        Date finishedAt;
+        Integer reportId;
+        String error;
+
+        Job(String type, Integer days) {
+            this.type = type;
+            this.days = days;
+        }
+
+        synchronized boolean start() {
+            if (!QUEUED.equals(status)) {
+                return false;
+            }
+            status = RUNNING;
+            startedAt = new Date();
+            return true;
+        }
+
+        synchronized void finish(String status, Integer reportId, String error) {
+            this.status = status;
+            this.reportId = reportId;
+            this.error = error;
+            this.finishedAt = new Date();
+        }
+
+        synchronized boolean finishedBefore(long cutoff) {
+            return finishedAt != null && finishedAt.getTime() < cutoff;
+        }
+
+        void checkCancelled() {
+            if (cancelRequested || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+        }
+
+        synchronized ReportJobDTO toDTO() {
+            ReportJobDTO dto = new ReportJobDTO();
+            dto.setJobId(id);
+            dto.setReportType(type);
+            dto.setDays(days);
+            dto.setStatus(status);
+            dto.setCancelRequested(cancelRequested && RUNNING.equals(status));
+            long done = processed.get();
+            dto.setProcessedRows(done);
+            dto.setTotalRows(total);
+            // Rows can be added while a report runs; stay below 100 until it is saved
+            dto.setProgress(COMPLETED.equals(status) ? 100 : total > 0 ? (int) Math.min(99, done * 100 / total) : 0);
+            dto.setReportId(reportId);
+            dto.setError(error);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.SearchResultDTO;
+import com.cts.lwms.model.Category;
+import com.cts.lwms.model.Inventory;
+import com.cts.lwms.model.Shipment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over item names, category names and shipment lanes.
+ * Tokens are padded at the front so short queries act as prefix matches, and a
+ * document matches when it shares enough of the query's trigrams, which tolerates typos.
+ * Kept current by the inventory, category and shipment services after each commit.
+ */
+@Service
+public class SearchIndexService {
+    public static final String TYPE_INVENTORY = "inventory";
+    public static final String TYPE_CATEGORY = "category";
+    public static final String TYPE_SHIPMENT = "shipment";
+
+    private static final int MAX_RESULTS = 100;
+    // Share of the query's trigrams a document must contain (queries of one or two grams need all)
+    private static final double MIN_COVERAGE = 0.5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docIdsByKey = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private Doc[] docs = new Doc[1024];
+    private int nextDocId = 0;
+    private int liveDocs = 0;
+    private int deadDocs = 0;
+
+    // Per-thread score accumulator, indexed by doc id; only touched slots are reset after a query
+    private final ThreadLocal<int[]> accumulators = ThreadLocal.withInitial(() -> new int[0]);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        loadDocuments(TYPE_INVENTORY, "SELECT item_id, item_name FROM inventory");
+        loadDocuments(TYPE_CATEGORY, "SELECT category_id, category_name FROM category");
+        loadDocuments(TYPE_SHIPMENT, "SELECT shipment_id, CONCAT_WS(' ', origin, destination) FROM shipment");
+        System.out.println("Search index loaded " + size() + " documents in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void loadDocuments(String type, String sql) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(1000);
+            return ps;
+        }, (ResultSet rs) -> {
+            // Writes that landed while loading are newer than this snapshot, keep them
+            indexDocument(type, rs.getInt(1), rs.getString(2), false);
+        });
+    }
+
+    // ---- write path -------------------------------------------------------
+
+    public void indexInventory(Inventory item) {
+        Integer id = item.getItemId();
+        String title = item.getItemName();
+        afterCommit(() -> indexDocument(TYPE_INVENTORY, id, title, true));
+    }
+
+    public void indexInventory(Integer itemId, String itemName) {
+        afterCommit(() -> indexDocument(TYPE_INVENTORY, itemId, itemName, true));
+    }
+
+    public void removeInventory(Integer itemId) {
+        afterCommit(() -> removeDocument(TYPE_INVENTORY, itemId));
+    }
+
+    public void indexCategory(Category category) {
+        Integer id = category.getCategoryId();
+        String title = category.getCategoryName();
+        afterCommit(() -> indexDocument(TYPE_CATEGORY, id, title, true));
+    }
+
+    public void removeCategory(Integer categoryId) {
+        afterCommit(() -> removeDocument(TYPE_CATEGORY, categoryId));
+    }
+
+    public void indexShipment(Shipment shipment) {
+        Integer id = shipment.getShipmentId();
+        String title = joinNonNull(shipment.getOrigin(), shipment.getDestination());
+        afterCommit(() -> indexDocument(TYPE_SHIPMENT, id, title, true));
+    }
+
+    public void removeShipment(Integer shipmentId) {
+        afterCommit(() -> removeDocument(TYPE_SHIPMENT, shipmentId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void indexDocument(String type, Integer id, String title, boolean replace) {
+        if (id == null) {
+            return;
+        }
+        String key = type + ":" + id;
+        String[] tokens = tokenize(title);
+        Set<String> grams = documentGrams(tokens);
+
+        lock.writeLock().lock();
+        try {
+            if (!replace && docIdsByKey.containsKey(key)) {
+                return;
+            }
+            removeLocked(key);
+            if (grams.isEmpty()) {
+                return;
+            }
+            int docId = nextDocId++;
+            if (docId >= docs.length) {
+                docs = Arrays.copyOf(docs, docs.length * 2);
+            }
+            docs[docId] = new Doc(type, id, title, tokens);
+            docIdsByKey.put(key, docId);
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(docId);
+            }
+            liveDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(String type, Integer id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(type + ":" + id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Tombstones the doc; postings are cleaned up by compaction once tombstones dominate
+    private void removeLocked(String key) {
+        Integer docId = docIdsByKey.remove(key);
+        if (docId == null) {
+            return;
+        }
+        docs[docId] = null;
+        liveDocs--;
+        deadDocs++;
+        if (deadDocs > 1024 && deadDocs > liveDocs) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        Doc[] live = new Doc[Math.max(1024, liveDocs * 2)];
+        postings.clear();
+        docIdsByKey.clear();
+        int next = 0;
+        for (int i = 0; i < nextDocId; i++) {
+            Doc doc = docs[i];
+            if (doc == null) {
+                continue;
+            }
+            int docId = next++;
+            live[docId] = doc;
+            docIdsByKey.put(doc.type + ":" + doc.id, docId);
+            for (String gram : documentGrams(doc.tokens)) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(docId);
+            }
+        }
+        docs = live;
+        nextDocId = next;
+        deadDocs = 0;
+    }
+
+    // ---- read path --------------------------------------------------------
+
+    /**
+     * Top-k documents for q, optionally restricted to one type.
+     * Cost is proportional to the posting lists of the query's trigrams, not to the index size.
+     */
+    public List<SearchResultDTO> search(String q, String type, int limit) {
+        String[] queryTokens = tokenize(q);
+        Set<String> queryGrams = queryGrams(queryTokens);
+        if (queryGrams.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_RESULTS));
+        int required = queryGrams.size() <= 2 ? queryGrams.size() : (int) Math.ceil(queryGrams.size() * MIN_COVERAGE);
+
+        PriorityQueue<SearchResultDTO> top = new PriorityQueue<>(k + 1, Comparator.comparingDouble(SearchResultDTO::getScore));
+        lock.readLock().lock();
+        try {
+            int[] counts = accumulator(nextDocId);
+            IntList touched = new IntList();
+            for (String gram : queryGrams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int docId = list.values[i];
+                    if (counts[docId]++ == 0) {
+                        touched.add(docId);
+                    }
+                }
+            }
+
+            for (int i = 0; i < touched.size; i++) {
+                int docId = touched.values[i];
+                int matched = counts[docId];
+                counts[docId] = 0;
+                Doc doc = docs[docId];
+                if (doc == null || matched < required || (type != null && !type.equals(doc.type))) {
+                    continue;
+                }
+                top.offer(new SearchResultDTO(doc.type, doc.id, doc.title, score(doc, queryTokens, matched, queryGrams.size())));
+                if (top.size() > k) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SearchResultDTO> results = new ArrayList<>(top);
+        results.sort(Comparator.comparingDouble(SearchResultDTO::getScore).reversed());
+        return results;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] accumulator(int size) {
+        int[] counts = accumulators.get();
+        if (counts.length < size) {
+            counts = new int[Math.max(size, counts.length * 2)];
+            accumulators.set(counts);
+        }
+        return counts;
+    }
+
+    // Trigram coverage, plus a bonus for whole-token prefix/exact hits, lightly favouring short titles
+    private static double score(Doc doc, String[] queryTokens, int matched, int queryGramCount) {
+        double score = (double) matched / queryGramCount;
+        for (String queryToken : queryTokens) {
+            for (String token : doc.tokens) {
+                if (token.equals(queryToken)) {
+                    score += 0.5;
+                    break;
+                }
+                if (token.startsWith(queryToken)) {
+                    score += 0.3;
+                    break;
+                }
+            }
+        }
+        return score - Math.min(0.1, doc.tokens.length * 0.01);
+    }
+
+    // ---- tokenizing -------------------------------------------------------
+
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static Set<String> documentGrams(String[] tokens) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens) {
+            addGrams(grams, "__" + token + "_");
+        }
+        return grams;
+    }
+
+    // The last query token is treated as a prefix, so it gets no end padding
+    private static Set<String> queryGrams(String[] tokens) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.length; i++) {
+            addGrams(grams, "__" + tokens[i] + (i < tokens.length - 1 ? "_" : ""));
+        }
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String padded) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static String joinNonNull(String first, String second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first + " " + second;
+    }
+
+    private static class Doc {
+        final String type;
+        final Integer id;
+        final String title;
+        final String[] tokens;
+
+        Doc(String type, Integer id, String title, String[] tokens) {
+            this.type = type;
+            this.id = id;
+            this.title = title;
+            this.tokens = tokens;
+        }
+    }
+
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
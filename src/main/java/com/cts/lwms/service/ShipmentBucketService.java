@@ -0,0 +1,254 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.ShipmentBucketRebuildResultDTO;
+import com.cts.lwms.dto.ShipmentTimeseriesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Shipment counts per expected-delivery day and month and per status, stored in ShipmentBucket.
+ * Every shipment write moves its counts with an upsert in the writer's own transaction, so
+ * /shipment/stats/timeseries reads a few bucket rows instead of the Shipment table.
+ * Days and months are UTC, the time zone the database connection stores dates in.
+ * rebuild() recomputes the buckets month by month, with the months aggregated concurrently.
+ */
+@Service
+public class ShipmentBucketService {
+    public static final String DAY = "day";
+    public static final String MONTH = "month";
+
+    private static final int MAX_BUCKETS = 1000;
+    private static final String UPSERT_SQL =
+            "INSERT INTO shipment_bucket (resolution, bucket_start, status, shipment_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE shipment_count = shipment_count + VALUES(shipment_count)";
+    private static final String INSERT_SQL =
+            "INSERT INTO shipment_bucket (resolution, bucket_start, status, shipment_count) VALUES (?, ?, ?, ?)";
+    // Upserts are sent in key order so concurrent writers lock bucket rows in the same order
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.comparing(Key::resolution).thenComparing(Key::start).thenComparing(Key::status);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * One shipment's contribution to the buckets; a null date is not counted
+     */
+    public record Point(Date expectedDeliveryDate, String status) {}
+
+    private record Key(String resolution, LocalDate start, String status) {}
+
+    // Existing shipments are counted once, the first time the table is found empty
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shipment_bucket", Long.class);
+        if (stored != null && stored == 0) {
+            ShipmentBucketRebuildResultDTO result = rebuild();
+            System.out.println("Shipment buckets backfilled: " + result);
+        }
+    }
+
+    /**
+     * Move one shipment from before to after in the caller's transaction.
+     * before is null for a new shipment, after is null for a deleted one.
+     */
+    public void applyChange(Point before, Point after) {
+        applyChanges(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Batch form of applyChange for set-based updates: every removed point is subtracted
+     * and every added point counted, with one upsert per bucket that changed
+     */
+    public void applyChanges(List<Point> removed, List<Point> added) {
+        Map<Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        removed.forEach(point -> count(deltas, point, -1));
+        added.forEach(point -> count(deltas, point, 1));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[] {key.resolution(), key.start(), key.status(), delta}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Shipment counts by expected delivery date between from and to (inclusive, UTC), one entry
+     * per day or month. Defaults to the last 12 months, or the last 30 days at day resolution.
+     * status, when given, limits the counts to that status.
+     */
+    public ShipmentTimeseriesDTO getTimeseries(String resolution, LocalDate from, LocalDate to, String status) {
+        String res = resolution == null || resolution.isBlank() ? MONTH : resolution.trim().toLowerCase(Locale.ROOT);
+        if (!DAY.equals(res) && !MONTH.equals(res)) {
+            throw new IllegalArgumentException("Unknown resolution: " + resolution + ". Use day or month");
+        }
+        boolean daily = DAY.equals(res);
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from != null ? from : daily ? last.minusDays(29) : last.minusMonths(11);
+        if (!daily) {
+            first = first.withDayOfMonth(1);
+            last = last.withDayOfMonth(1);
+        }
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate d = first; !d.isAfter(last); d = daily ? d.plusDays(1) : d.plusMonths(1)) {
+            if (starts.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("At most " + MAX_BUCKETS + " buckets can be read at once");
+            }
+            starts.add(d);
+        }
+        Map<LocalDate, Integer> index = new HashMap<>();
+        String[] buckets = new String[starts.size()];
+        for (int i = 0; i < starts.size(); i++) {
+            index.put(starts.get(i), i);
+            buckets[i] = daily ? starts.get(i).toString() : YearMonth.from(starts.get(i)).toString();
+        }
+
+        String filter = status == null || status.isBlank() ? null : ShipmentService.canonicalStatus(status);
+        long[] totals = new long[buckets.length];
+        Map<String, long[]> byStatus = new TreeMap<>();
+        List<Object> args = new ArrayList<>(List.of(res, first, last));
+        if (filter != null) {
+            args.add(filter);
+        }
+        jdbcTemplate.query(
+                "SELECT bucket_start, status, shipment_count FROM shipment_bucket " +
+                "WHERE resolution = ? AND bucket_start BETWEEN ? AND ?" + (filter != null ? " AND status = ?" : ""),
+                (ResultSet rs) -> {
+                    Integer i = index.get(rs.getObject(1, LocalDate.class));
+                    long count = rs.getLong(3);
+                    if (i != null && count != 0) {
+                        totals[i] += count;
+                        byStatus.computeIfAbsent(rs.getString(2), k -> new long[buckets.length])[i] += count;
+                    }
+                },
+                args.toArray());
+        return new ShipmentTimeseriesDTO(res, buckets, totals, byStatus);
+    }
+
+    /**
+     * Recompute every bucket from the Shipment table. Each delivery month is aggregated and
+     * replaced in its own transaction, concurrently with the other months; buckets outside the
+     * months that have shipments are removed. Writes committed while it runs may or may not be
+     * counted, so run it when quiet.
+     */
+    public ShipmentBucketRebuildResultDTO rebuild() {
+        long start = System.currentTimeMillis();
+        ShipmentBucketRebuildResultDTO result = new ShipmentBucketRebuildResultDTO();
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(expected_delivery_date) AS lo, MAX(expected_delivery_date) AS hi FROM shipment");
+
+        if (bounds.get("lo") == null) {
+            jdbcTemplate.update("DELETE FROM shipment_bucket");
+        } else {
+            YearMonth firstMonth = YearMonth.from(utcDay((Date) bounds.get("lo")));
+            YearMonth lastMonth = YearMonth.from(utcDay((Date) bounds.get("hi")));
+            List<Future<long[]>> parts = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                    YearMonth partition = month;
+                    parts.add(executor.submit(() -> rebuildMonth(partition)));
+                }
+                for (Future<long[]> part : parts) {
+                    long[] counted = part.get();
+                    result.setBuckets(result.getBuckets() + (int) counted[0]);
+                    result.setShipments(result.getShipments() + counted[1]);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Shipment bucket rebuild interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Shipment bucket rebuild failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            jdbcTemplate.update("DELETE FROM shipment_bucket WHERE bucket_start < ? OR bucket_start >= ?",
+                    firstMonth.atDay(1), lastMonth.plusMonths(1).atDay(1));
+            result.setPartitions(parts.size());
+        }
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // [bucket rows written, shipments counted] for one delivery month
+    private long[] rebuildMonth(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate next = month.plusMonths(1).atDay(1);
+        Map<Key, Long> counts = new TreeMap<>(KEY_ORDER);
+        long[] shipments = new long[1];
+        jdbcTemplate.query(
+                "SELECT DATE(expected_delivery_date), status, COUNT(*) FROM shipment " +
+                "WHERE expected_delivery_date >= ? AND expected_delivery_date < ? " +
+                "GROUP BY DATE(expected_delivery_date), status",
+                (ResultSet rs) -> {
+                    LocalDate day = rs.getObject(1, LocalDate.class);
+                    String status = bucketStatus(rs.getString(2));
+                    long count = rs.getLong(3);
+                    counts.merge(new Key(DAY, day, status), count, Long::sum);
+                    counts.merge(new Key(MONTH, first, status), count, Long::sum);
+                    shipments[0] += count;
+                },
+                utcStart(first), utcStart(next));
+
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[] {key.resolution(), key.start(), key.status(), count}));
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.update("DELETE FROM shipment_bucket WHERE bucket_start >= ? AND bucket_start < ?", first, next);
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+        });
+        return new long[] {rows.size(), shipments[0]};
+    }
+
+    private static void count(Map<Key, Long> deltas, Point point, long delta) {
+        if (point.expectedDeliveryDate() == null) {
+            return;
+        }
+        LocalDate day = utcDay(point.expectedDeliveryDate());
+        String status = bucketStatus(point.status());
+        deltas.merge(new Key(DAY, day, status), delta, Long::sum);
+        deltas.merge(new Key(MONTH, day.withDayOfMonth(1), status), delta, Long::sum);
+    }
+
+    private static String bucketStatus(String status) {
+        String canonical = ShipmentService.canonicalStatus(status);
+        return canonical != null ? canonical : "Unknown";
+    }
+
+    // Works for java.sql.Timestamp and java.sql.Date alike, unlike Date.toInstant()
+    private static LocalDate utcDay(Date date) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneOffset.UTC);
+    }
+
+    private static Timestamp utcStart(LocalDate day) {
+        return Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
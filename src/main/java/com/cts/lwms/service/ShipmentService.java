@@ -1,15 +1,42 @@
 package com.cts.lwms.service;
 
+import com.cts.lwms.cache.BoundedTtlCache;
+import com.cts.lwms.dto.CacheStatsDTO;
+import com.cts.lwms.model.Inventory;
 import com.cts.lwms.model.Shipment;
 import com.cts.lwms.repo.ShipmentRepo;
 import com.cts.lwms.dto.ShipmentTrackingDTO;
 import com.cts.lwms.dto.ShipmentListDTO;
+import com.cts.lwms.dto.ShipmentPageDTO;
+import com.cts.lwms.dto.ShipmentBulkStatusDTO;
+import com.cts.lwms.dto.ShipmentBulkStatusResultDTO;
+import com.cts.lwms.dto.SpaceReservationRequestDTO;
 // import com.cts.lwms.repo.InventoryRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,49 +44,297 @@ public class ShipmentService {
     @Autowired
     private ShipmentRepo shipmentRepo;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ShipmentSlaService shipmentSlaService;
+
+    @Autowired
+    private LaneStatsService laneStatsService;
+
+    @Autowired
+    private ShipmentBucketService shipmentBucketService;
+
+    @Autowired
+    private SpaceReservationService spaceReservationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Upper bound on shipments touched by one bulk request; IN lists are sent in chunks
+    private static final int MAX_BULK_SHIPMENTS = 5000;
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    // Target status -> statuses a shipment may be moved out of by a bulk update.
+    // "Received" is not listed: a receipt goes through /shipment/receive and its duplicate check.
+    private static final Map<String, Set<String>> BULK_TRANSITIONS = Map.of(
+        "Pending", Set.of("Cancelled"),
+        "In Transit", Set.of("Pending"),
+        "Delivered", Set.of("In Transit"),
+        "Cancelled", Set.of("Pending", "In Transit")
+    );
+
     // Removed unused InventoryRepo field
 
+    @Value("${lwms.cache.tracking.max-size:10000}")
+    private int trackingCacheMaxSize;
+
+    @Value("${lwms.cache.tracking.ttl-seconds:60}")
+    private long trackingCacheTtlSeconds;
+
+    // Ready-made tracking responses for polling clients; every shipment write evicts its entry
+    private BoundedTtlCache<Integer, ShipmentTrackingDTO> trackingCache;
+
+    @PostConstruct
+    void initCaches() {
+        trackingCache = new BoundedTtlCache<>("shipmentTracking", trackingCacheMaxSize, trackingCacheTtlSeconds * 1000);
+    }
+
+    /**
+     * Give received shipments stored before receivedItemId existed their key, so the unique
+     * constraint covers them too. A receipt for an item that already has a keyed receipt is
+     * left unkeyed and reported.
+     */
+    @PostConstruct
+    void backfillReceivedItemIds() {
+        int[] keyedCount = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, Integer> keyed = new HashMap<>();
+            for (Object[] row : shipmentRepo.findReceivedItemKeys()) {
+                keyed.put((Integer) row[0], (Integer) row[1]);
+            }
+            for (Object[] row : shipmentRepo.findUnkeyedReceipts()) {
+                Integer shipmentId = (Integer) row[0];
+                Integer itemId = (Integer) row[1];
+                if (keyed.containsKey(itemId)) {
+                    System.out.println("Shipment " + shipmentId + " duplicates the receipt of item " + itemId
+                            + " (shipment " + keyed.get(itemId) + "); left out of the duplicate check");
+                    continue;
+                }
+                shipmentRepo.setReceivedItemId(shipmentId, itemId);
+                keyed.put(itemId, shipmentId);
+                keyedCount[0]++;
+            }
+        });
+        if (keyedCount[0] > 0) {
+            System.out.println("Received item keys backfilled for " + keyedCount[0] + " shipments");
+        }
+    }
+
+    /**
+     * Create a shipment and, when holdQuantity is given, hold that much capacity in its
+     * destination zone in the same transaction, so the shipment is not stored without its hold.
+     * The hold follows the shipment to Delivered/Received (confirm) or Cancelled/deleted (release).
+     */
+    @Transactional
+    public Shipment receiveShipment(Shipment shipment, Integer holdQuantity) {
+        Shipment saved = receiveShipment(shipment);
+        if (holdQuantity != null) {
+            spaceReservationService.reserve(
+                    new SpaceReservationRequestDTO(null, holdQuantity, saved.getShipmentId(), null));
+        }
+        return saved;
+    }
+
+    @Transactional
     public Shipment receiveShipment(Shipment shipment) {
         System.out.println("Saving shipment: " + shipment);
         Shipment saved = shipmentRepo.save(shipment);
         System.out.println("Saved shipment with ID: " + saved.getShipmentId());
+        evictTracking(saved.getShipmentId());
+        searchIndexService.indexShipment(saved);
+        trackDeadline(saved);
+        laneStatsService.applyChange(null, laneState(saved));
+        shipmentBucketService.applyChange(null, bucketPoint(saved));
+        publishShipmentChange(saved, ChangeEventService.ACTION_CREATED);
         return saved;
     }
 
+    @Transactional
     public Shipment dispatchShipment(Shipment shipment) {
         // Ensure inventory is set from itemId
         if (shipment.getInventory() == null && shipment.getInventory() == null) {
             throw new RuntimeException("Inventory must be set for shipment");
         }
-        return shipmentRepo.save(shipment);
+        Stored stored = storedBefore(shipment);
+        LaneStatsService.State before = stored != null ? stored.lane() : null;
+        ShipmentBucketService.Point bucketBefore = stored != null ? stored.bucket() : null;
+        clearOverdueIfRescheduled(shipment);
+        Shipment saved = shipmentRepo.save(shipment);
+        evictTracking(saved.getShipmentId());
+        searchIndexService.indexShipment(saved);
+        trackDeadline(saved);
+        laneStatsService.applyChange(before, laneState(saved));
+        shipmentBucketService.applyChange(bucketBefore, bucketPoint(saved));
+        settleReservations(saved, before);
+        publishShipmentChange(saved, ChangeEventService.ACTION_UPDATED);
+        return saved;
+    }
+
+    // An open shipment whose deadline was moved into the future is no longer overdue
+    private static void clearOverdueIfRescheduled(Shipment shipment) {
+        if (shipment.isOverdue() && ShipmentSlaService.isOpen(shipment.getStatus())
+                && shipment.getExpectedDeliveryDate() != null && shipment.getExpectedDeliveryDate().after(new Date())) {
+            shipment.setOverdue(false);
+        }
+    }
+
+    private static LaneStatsService.State laneState(Shipment shipment) {
+        return new LaneStatsService.State(shipment.getOrigin(), shipment.getDestination(),
+                shipment.getStatus(), shipment.isOverdue());
+    }
+
+    private static ShipmentBucketService.Point bucketPoint(Shipment shipment) {
+        return new ShipmentBucketService.Point(shipment.getExpectedDeliveryDate(), shipment.getStatus());
+    }
+
+    private record Stored(LaneStatsService.State lane, ShipmentBucketService.Point bucket) {}
+
+    /**
+     * The shipment's row as it is in the database, locked until this transaction ends.
+     * The entity handed in may have been loaded before another write committed, so its
+     * loaded state is not used as the starting point for lane and bucket counters.
+     */
+    private Optional<Stored> lockStored(Integer shipmentId) {
+        List<Object[]> rows = shipmentRepo.lockStoredState(shipmentId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        String status = (String) row[0];
+        return Optional.of(new Stored(
+                new LaneStatsService.State((String) row[1], (String) row[2], status, Boolean.TRUE.equals(row[3])),
+                new ShipmentBucketService.Point((Date) row[4], status)));
+    }
+
+    // Null for a shipment that has never been saved
+    private Stored storedBefore(Shipment shipment) {
+        if (shipment.getShipmentId() == null) {
+            return null;
+        }
+        return lockStored(shipment.getShipmentId())
+                .orElseThrow(() -> new IllegalArgumentException("Shipment not found with ID: " + shipment.getShipmentId()));
+    }
+
+    // Space held for a shipment is confirmed when it completes and released when it is cancelled
+    private void settleReservations(Shipment shipment, LaneStatsService.State before) {
+        String previous = before != null ? canonicalStatus(before.status()) : null;
+        String current = canonicalStatus(shipment.getStatus());
+        if (current != null && !current.equals(previous)) {
+            spaceReservationService.settleShipments(List.of(shipment.getShipmentId()), current);
+        }
+    }
+
+    private void trackDeadline(Shipment shipment) {
+        shipmentSlaService.track(shipment.getShipmentId(), shipment.getStatus(),
+                shipment.getExpectedDeliveryDate(), shipment.isOverdue());
+    }
+
+    private void publishShipmentChange(Shipment shipment, String action) {
+        changeEventService.publish(ChangeEventService.ENTITY_SHIPMENT, shipment.getShipmentId(), action,
+                ChangeEventService.fields(
+                        "status", shipment.getStatus(),
+                        "origin", shipment.getOrigin(),
+                        "destination", shipment.getDestination(),
+                        "expectedDeliveryDate", shipment.getExpectedDeliveryDate(),
+                        "itemId", shipment.getInventory() != null ? shipment.getInventory().getItemId() : null));
+        activityService.record(ChangeEventService.ENTITY_SHIPMENT, shipment.getShipmentId(),
+                ChangeEventService.ACTION_CREATED.equals(action)
+                        ? "Shipment " + shipment.getShipmentId() + " created: " + shipment.getOrigin() + " to " + shipment.getDestination()
+                        : "Shipment " + shipment.getShipmentId() + " updated: " + shipment.getStatus());
     }
 
+    /**
+     * Tracking view of a shipment, served from trackingCache. Concurrent polls for an
+     * uncached id share one findByIdWithInventory; unknown ids are not cached.
+     */
     public Optional<ShipmentTrackingDTO> trackShipment(Integer shipmentId) {
+        return Optional.ofNullable(trackingCache.get(shipmentId, this::loadTracking));
+    }
+
+    private ShipmentTrackingDTO loadTracking(Integer shipmentId) {
         // Fetch shipment with inventory details to ensure ItemId is available
         Optional<Shipment> shipment = shipmentRepo.findByIdWithInventory(shipmentId);
-        if (shipment.isPresent()) {
-            // Convert to DTO with ItemId
-            Shipment s = shipment.get();
-            ShipmentTrackingDTO dto = new ShipmentTrackingDTO();
-            dto.setShipmentId(s.getShipmentId());
-            dto.setOrigin(s.getOrigin());
-            dto.setDestination(s.getDestination());
-            dto.setStatus(s.getStatus());
-            dto.setExpectedDeliveryDate(s.getExpectedDeliveryDate());
-            
-            if (s.getInventory() != null) {
-                dto.setItemId(s.getInventory().getItemId());
-                System.out.println("Tracked shipment " + shipmentId + " with ItemId: " + s.getInventory().getItemId());
-            } else {
-                dto.setItemId(null);
-                System.out.println("Warning: Shipment " + shipmentId + " has no inventory associated");
-            }
-            
-            return Optional.of(dto);
-        } else {
-            System.out.println("Shipment not found with ID: " + shipmentId);
-            return Optional.empty();
+        if (shipment.isEmpty()) {
+            return null;
+        }
+        Shipment s = shipment.get();
+        ShipmentTrackingDTO dto = new ShipmentTrackingDTO();
+        dto.setShipmentId(s.getShipmentId());
+        dto.setOrigin(s.getOrigin());
+        dto.setDestination(s.getDestination());
+        dto.setStatus(s.getStatus());
+        dto.setExpectedDeliveryDate(s.getExpectedDeliveryDate());
+        dto.setItemId(s.getInventory() != null ? s.getInventory().getItemId() : null);
+        return dto;
+    }
+
+    // Evicts now and again after commit, so a poll racing the transaction cannot re-cache the old row
+    private void evictTracking(Integer shipmentId) {
+        if (shipmentId == null) {
+            return;
+        }
+        trackingCache.invalidate(shipmentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    trackingCache.invalidate(shipmentId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Shipments are deleted along with their inventory item; drop them from the
+     * tracking cache and the search index as well, and release any space held for them.
+     */
+    public void releaseShipmentsOf(Inventory item) {
+        if (item.getShipments() == null || item.getShipments().isEmpty()) {
+            return;
+        }
+        List<Integer> shipmentIds = new ArrayList<>();
+        for (Shipment shipment : item.getShipments()) {
+            shipmentIds.add(shipment.getShipmentId());
+        }
+
+        // Lane and bucket figures drop what the locked rows hold, not what the item's collection was loaded with
+        List<LaneStatsService.State> removed = new ArrayList<>();
+        List<ShipmentBucketService.Point> removedPoints = new ArrayList<>();
+        for (Object[] row : shipmentRepo.lockStatusesByIds(shipmentIds)) {
+            removed.add(new LaneStatsService.State((String) row[2], (String) row[3], (String) row[1], Boolean.TRUE.equals(row[4])));
+            removedPoints.add(new ShipmentBucketService.Point((Date) row[5], (String) row[1]));
         }
+        laneStatsService.applyChanges(removed, List.of());
+        shipmentBucketService.applyChanges(removedPoints, List.of());
+
+        for (Integer shipmentId : shipmentIds) {
+            evictTracking(shipmentId);
+            searchIndexService.removeShipment(shipmentId);
+            shipmentSlaService.untrack(shipmentId);
+            changeEventService.publish(ChangeEventService.ENTITY_SHIPMENT, shipmentId, ChangeEventService.ACTION_DELETED, null);
+            activityService.record(ChangeEventService.ENTITY_SHIPMENT, shipmentId,
+                    "Shipment " + shipmentId + " deleted with its item");
+        }
+        spaceReservationService.releaseShipments(shipmentIds);
+    }
+
+    public CacheStatsDTO getTrackingCacheStats() {
+        return trackingCache.stats();
+    }
+
+    public boolean hasReceivedShipment(Integer itemId) {
+        return shipmentRepo.existsByInventory_ItemIdAndStatus(itemId, "Received");
     }
 
     public List<Shipment> getAllShipments() {
@@ -88,18 +363,239 @@ public class ShipmentService {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Filtered keyset page of shipments in shipmentId order; deliveryTo is exclusive.
+     * Rows are projected into ShipmentListDTO by the query, so no entities are loaded.
+     * Only the filters that are present become predicates, so MySQL can pick the matching
+     * (status, shipment_id), (origin, destination, shipment_id) or (destination, shipment_id) index.
+     */
+    public ShipmentPageDTO searchShipments(String status, String origin, String destination,
+                                           Date deliveryFrom, Date deliveryTo, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ShipmentListDTO> query = cb.createQuery(ShipmentListDTO.class);
+        Root<Shipment> s = query.from(Shipment.class);
+        // itemId comes from the foreign key, so Inventory is not joined
+        query.select(cb.construct(ShipmentListDTO.class, s.get("shipmentId"), s.get("origin"), s.get("destination"),
+                s.get("status"), s.get("expectedDeliveryDate"), s.get("inventory").get("itemId")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(s.<Integer>get("shipmentId"), parseCursor(cursor)));
+        String statusFilter = blankToNull(status);
+        if (statusFilter != null) {
+            predicates.add(cb.equal(s.get("status"), statusFilter));
+        }
+        String originFilter = blankToNull(origin);
+        if (originFilter != null) {
+            predicates.add(cb.equal(s.get("origin"), originFilter));
+        }
+        String destinationFilter = blankToNull(destination);
+        if (destinationFilter != null) {
+            predicates.add(cb.equal(s.get("destination"), destinationFilter));
+        }
+        if (deliveryFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(s.<Date>get("expectedDeliveryDate"), deliveryFrom));
+        }
+        if (deliveryTo != null) {
+            predicates.add(cb.lessThan(s.<Date>get("expectedDeliveryDate"), deliveryTo));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(s.get("shipmentId")));
+
+        List<ShipmentListDTO> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Moves a batch of shipments to one status in a single transaction. Targets are either the
+     * explicit ids or every shipment currently in fromStatus. Current statuses are read in chunks,
+     * under row locks, each id is checked against BULK_TRANSITIONS, and the allowed ones are changed
+     * with one UPDATE per chunk. Unknown ids and ids that break a transition rule are reported, not failed.
+     */
+    @Transactional
+    public ShipmentBulkStatusResultDTO bulkUpdateStatus(ShipmentBulkStatusDTO request) {
+        String target = canonicalStatus(request.getStatus());
+        if (target == null || !BULK_TRANSITIONS.containsKey(target)) {
+            throw new IllegalArgumentException("Unsupported target status for bulk update: " + request.getStatus()
+                    + ". Allowed: " + BULK_TRANSITIONS.keySet());
+        }
+        Set<String> allowedFrom = BULK_TRANSITIONS.get(target);
+
+        List<Integer> ids;
+        if (request.getShipmentIds() != null && !request.getShipmentIds().isEmpty()) {
+            ids = new ArrayList<>(new LinkedHashSet<>(request.getShipmentIds()));
+            ids.remove(null);
+        } else if (blankToNull(request.getFromStatus()) != null) {
+            ids = shipmentRepo.findIdsByStatus(request.getFromStatus().trim(), Limit.of(MAX_BULK_SHIPMENTS + 1));
+        } else {
+            throw new IllegalArgumentException("Either shipmentIds or fromStatus is required");
+        }
+        if (ids.size() > MAX_BULK_SHIPMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SHIPMENTS + " shipments can be updated at once");
+        }
+
+        ShipmentBulkStatusResultDTO result = new ShipmentBulkStatusResultDTO(target);
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            Map<Integer, Object[]> current = new HashMap<>();
+            // Locked until commit, so lane and bucket figures below move from the rows as stored
+            for (Object[] row : shipmentRepo.lockStatusesByIds(chunk)) {
+                current.put((Integer) row[0], row);
+            }
+
+            List<Integer> eligible = new ArrayList<>();
+            Set<String> eligibleStatuses = new HashSet<>(); // As stored, so the UPDATE guard matches exactly
+            for (Integer id : chunk) {
+                if (!current.containsKey(id)) {
+                    result.getMissingIds().add(id);
+                    continue;
+                }
+                String stored = (String) current.get(id)[1];
+                String status = canonicalStatus(stored);
+                if (target.equals(status)) {
+                    result.getRejected().put(id, "Already " + target);
+                } else if (status == null || !allowedFrom.contains(status)) {
+                    result.getRejected().put(id, "Cannot move from " + stored + " to " + target);
+                } else {
+                    eligible.add(id);
+                    eligibleStatuses.add(stored);
+                }
+            }
+            if (eligible.isEmpty()) {
+                continue;
+            }
+
+            int updated = shipmentRepo.updateStatus(eligible, target, eligibleStatuses);
+            if (updated != eligible.size()) {
+                // Cannot happen while the rows are locked; roll back rather than count a partial update
+                throw new IllegalStateException("Updated " + updated + " of " + eligible.size() + " eligible shipments");
+            }
+            eligible.forEach(this::evictTracking);
+            int updatedBefore = result.getUpdatedIds().size();
+            result.getUpdatedIds().addAll(eligible);
+
+            // Lane and bucket figures move from each row's locked status to the target status
+            List<LaneStatsService.State> removed = new ArrayList<>();
+            List<LaneStatsService.State> added = new ArrayList<>();
+            List<ShipmentBucketService.Point> removedPoints = new ArrayList<>();
+            List<ShipmentBucketService.Point> addedPoints = new ArrayList<>();
+            for (Integer id : result.getUpdatedIds().subList(updatedBefore, result.getUpdatedIds().size())) {
+                Object[] row = current.get(id);
+                boolean overdue = Boolean.TRUE.equals(row[4]);
+                removed.add(new LaneStatsService.State((String) row[2], (String) row[3], (String) row[1], overdue));
+                added.add(new LaneStatsService.State((String) row[2], (String) row[3], target, overdue));
+                removedPoints.add(new ShipmentBucketService.Point((Date) row[5], (String) row[1]));
+                addedPoints.add(new ShipmentBucketService.Point((Date) row[5], target));
+            }
+            laneStatsService.applyChanges(removed, added);
+            shipmentBucketService.applyChanges(removedPoints, addedPoints);
+        }
+        if (!result.getUpdatedIds().isEmpty()) {
+            shipmentSlaService.retrack(result.getUpdatedIds());
+            spaceReservationService.settleShipments(result.getUpdatedIds(), target);
+            // One event for the whole batch; listeners reload rather than patch thousands of rows
+            changeEventService.publish(ChangeEventService.ENTITY_SHIPMENT, null, "bulk_status",
+                    ChangeEventService.fields("status", target, "shipmentIds", result.getUpdatedIds()));
+            activityService.record(ChangeEventService.ENTITY_SHIPMENT, null,
+                    result.getUpdatedIds().size() + " shipments set to " + target);
+        }
+        System.out.println("Bulk status update: " + result);
+        return result;
+    }
+
+    // Maps stored spellings ("in transit", "IN TRANSIT") onto the names used in BULK_TRANSITIONS
+    static String canonicalStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        String trimmed = status.trim();
+        if (trimmed.equalsIgnoreCase("Received")) {
+            return "Received";
+        }
+        for (String known : BULK_TRANSITIONS.keySet()) {
+            if (known.equalsIgnoreCase(trimmed)) {
+                return known;
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * Keyset page of open shipments that have missed their expected delivery date,
+     * as flagged by the SLA monitor
+     */
+    public ShipmentPageDTO getOverdueShipments(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<ShipmentListDTO> rows = shipmentRepo.findOverdue(parseCursor(cursor), ShipmentSlaService.OPEN_STATUSES, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? 50 : Math.min(limit, 500);
+    }
+
+    // Cursors are the last shipmentId of the previous page
+    private static int parseCursor(String cursor) {
+        try {
+            return cursor == null || cursor.isBlank() ? 0 : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // rows holds one extra row when another page follows
+    private static ShipmentPageDTO toPage(List<ShipmentListDTO> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ShipmentListDTO> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).getShipmentId()) : null;
+        return new ShipmentPageDTO(items, nextCursor, hasMore);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     public Optional<Shipment> getShipmentById(Integer shipmentId) {
         return shipmentRepo.findById(shipmentId);
     }
 
+    /**
+     * Save, counter updates and reservation settlement commit together, starting from the
+     * row as stored (read under lock) rather than from when the entity was loaded
+     */
+    @Transactional
     public Shipment updateShipment(Shipment shipment) {
         System.out.println("Updating shipment: " + shipment);
+        Stored stored = storedBefore(shipment);
+        LaneStatsService.State before = stored != null ? stored.lane() : null;
+        ShipmentBucketService.Point bucketBefore = stored != null ? stored.bucket() : null;
+        clearOverdueIfRescheduled(shipment);
         Shipment updated = shipmentRepo.save(shipment);
         System.out.println("Updated shipment with ID: " + updated.getShipmentId());
+        evictTracking(updated.getShipmentId());
+        searchIndexService.indexShipment(updated);
+        trackDeadline(updated);
+        laneStatsService.applyChange(before, laneState(updated));
+        shipmentBucketService.applyChange(bucketBefore, bucketPoint(updated));
+        settleReservations(updated, before);
+        publishShipmentChange(updated, ChangeEventService.ACTION_UPDATED);
         return updated;
     }
 
+    @Transactional
     public void deleteShipment(Integer shipmentId) {
+        Optional<Stored> stored = lockStored(shipmentId);
+        if (stored.isEmpty()) {
+            return;
+        }
         shipmentRepo.deleteById(shipmentId);
+        laneStatsService.applyChange(stored.get().lane(), null);
+        shipmentBucketService.applyChange(stored.get().bucket(), null);
+        spaceReservationService.releaseShipments(List.of(shipmentId));
+        evictTracking(shipmentId);
+        searchIndexService.removeShipment(shipmentId);
+        shipmentSlaService.untrack(shipmentId);
+        changeEventService.publish(ChangeEventService.ENTITY_SHIPMENT, shipmentId, ChangeEventService.ACTION_DELETED, null);
+        activityService.record(ChangeEventService.ENTITY_SHIPMENT, shipmentId, "Shipment " + shipmentId + " deleted");
     }
 }
@@ -0,0 +1,238 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.repo.ShipmentRepo;
+import com.cts.lwms.util.TimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the expected delivery date of every open shipment with a timer wheel instead of
+ * scanning the Shipment table. When a deadline passes the shipment is re-checked against the
+ * database, flagged overdue and an "overdue" change event is published.
+ */
+@Service
+public class ShipmentSlaService {
+    // Statuses a shipment can still be late in
+    public static final Set<String> OPEN_STATUSES = Set.of("Pending", "In Transit");
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Value("${lwms.sla.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${lwms.sla.retry-seconds:60}")
+    private long retrySeconds;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private LaneStatsService laneStatsService;
+
+    private TimerWheel<Integer> wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimerWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT shipment_id, expected_delivery_date FROM shipment " +
+                    "WHERE status IN ('Pending', 'In Transit') AND overdue = 0 AND expected_delivery_date IS NOT NULL",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(1000);
+            return ps;
+        }, (ResultSet rs) -> {
+            Timestamp deadline = rs.getTimestamp(2);
+            wheel.schedule(rs.getInt(1), deadline.getTime());
+        });
+        System.out.println("SLA monitor loaded " + wheel.size() + " open shipments in " + (System.currentTimeMillis() - start) + " ms");
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "shipment-sla");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public static boolean isOpen(String status) {
+        if (status == null) {
+            return false;
+        }
+        String trimmed = status.trim();
+        for (String open : OPEN_STATUSES) {
+            if (open.equalsIgnoreCase(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start, move or stop the timer for one shipment once the caller's transaction commits
+     */
+    public void track(Integer shipmentId, String status, Date expectedDeliveryDate, boolean overdue) {
+        if (shipmentId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (isOpen(status) && !overdue && expectedDeliveryDate != null) {
+                wheel.schedule(shipmentId, expectedDeliveryDate.getTime());
+            } else {
+                wheel.cancel(shipmentId);
+            }
+        });
+    }
+
+    public void untrack(Integer shipmentId) {
+        afterCommit(() -> wheel.cancel(shipmentId));
+    }
+
+    /**
+     * Re-read the given shipments after commit and reset their timers; used after set-based updates
+     */
+    public void retrack(Collection<Integer> shipmentIds) {
+        List<Integer> ids = new ArrayList<>(shipmentIds);
+        afterCommit(() -> {
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                Set<Integer> found = new HashSet<>();
+                for (Object[] row : shipmentRepo.findDeadlinesByIds(chunk)) {
+                    Integer id = (Integer) row[0];
+                    Date deadline = (Date) row[2];
+                    found.add(id);
+                    if (isOpen((String) row[1]) && !Boolean.TRUE.equals(row[3]) && deadline != null) {
+                        wheel.schedule(id, deadline.getTime());
+                    } else {
+                        wheel.cancel(id);
+                    }
+                }
+                chunk.stream().filter(id -> !found.contains(id)).forEach(wheel::cancel);
+            }
+        });
+    }
+
+    public int getTrackedCount() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        List<Integer> due;
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; log and keep ticking
+            System.out.println("SLA monitor tick failed: " + e.getMessage());
+            return;
+        }
+        for (int from = 0; from < due.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = due.subList(from, Math.min(from + CHUNK_SIZE, due.size()));
+            try {
+                flagOverdue(chunk);
+            } catch (RuntimeException e) {
+                System.out.println("SLA monitor could not flag " + chunk.size() + " shipment(s), retrying: " + e.getMessage());
+                long retryAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retrySeconds);
+                chunk.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    // Deadlines are re-checked in the database, under row locks; the timer only says when to look
+    private void flagOverdue(List<Integer> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Date now = new Date();
+            List<Integer> overdue = new ArrayList<>();
+            List<Object[]> late = new ArrayList<>();
+            for (Object[] row : shipmentRepo.lockDeadlinesByIds(ids)) {
+                Integer id = (Integer) row[0];
+                Date deadline = (Date) row[2];
+                if (!isOpen((String) row[1]) || Boolean.TRUE.equals(row[3]) || deadline == null) {
+                    continue;
+                }
+                if (deadline.after(now)) {
+                    // Moved later by a write whose timer update has not landed yet
+                    wheel.schedule(id, deadline.getTime());
+                    continue;
+                }
+                overdue.add(id);
+                late.add(row);
+            }
+            if (overdue.isEmpty()) {
+                return;
+            }
+            int flagged = shipmentRepo.markOverdue(overdue, OPEN_STATUSES, now);
+            if (flagged != overdue.size()) {
+                // Cannot happen while the rows are locked; roll back and let the retry re-read them
+                throw new IllegalStateException("flagged " + flagged + " of " + overdue.size() + " overdue shipments");
+            }
+            List<LaneStatsService.State> before = new ArrayList<>();
+            List<LaneStatsService.State> after = new ArrayList<>();
+            for (Object[] row : late) {
+                before.add(new LaneStatsService.State((String) row[4], (String) row[5], (String) row[1], false));
+                after.add(new LaneStatsService.State((String) row[4], (String) row[5], (String) row[1], true));
+            }
+            laneStatsService.applyChanges(before, after);
+            for (Object[] row : late) {
+                changeEventService.publish(ChangeEventService.ENTITY_SHIPMENT, (Integer) row[0], "overdue",
+                        ChangeEventService.fields("status", row[1], "expectedDeliveryDate", row[2], "overdue", true));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.SpaceHistoryDTO;
+import com.cts.lwms.model.Space;
+import com.cts.lwms.repo.SpaceRepo;
+import com.cts.lwms.util.UtilizationRing;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-zone utilization history at minute, hour and day resolution. Every minute the zone
+ * ledger (Space rows only, never Inventory) is sampled into a ring of minute points, and the
+ * same sample is folded into the current hour and day. Closed hours and days are written to
+ * SpaceUtilizationSample in batches and reloaded at startup; minute points live in memory only.
+ * The open hour and day are written with each flush and at shutdown, with their sample count,
+ * so a restart within the bucket carries on from the stored figures. Days are UTC days.
+ */
+@Service
+public class SpaceHistoryService {
+    public static final String MINUTE = "minute";
+    public static final String HOUR = "hour";
+    public static final String DAY = "day";
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO space_utilization_sample (space_id, resolution, bucket_start, average_utilization, peak_utilization, sample_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE average_utilization = VALUES(average_utilization), " +
+            "peak_utilization = VALUES(peak_utilization), sample_count = VALUES(sample_count)";
+
+    @Value("${lwms.space.history.minute-slots:1440}")
+    private int minuteSlots;
+
+    @Value("${lwms.space.history.hour-slots:720}")
+    private int hourSlots;
+
+    @Value("${lwms.space.history.day-slots:365}")
+    private int daySlots;
+
+    @Value("${lwms.space.history.flush-seconds:300}")
+    private long flushSeconds;
+
+    @Autowired
+    private SpaceRepo spaceRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, ZoneHistory> zones = new ConcurrentHashMap<>();
+    // Closed hour/day buckets waiting to be written: [spaceId, resolution, bucketStart, average, peak, sampleCount]
+    private final ConcurrentLinkedQueue<Object[]> pendingRows = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.currentTimeMillis();
+        int loaded = loadHistory(start);
+        System.out.println("Space history loaded " + loaded + " stored points for " + zones.size() + " zones in "
+                + (System.currentTimeMillis() - start) + " ms");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "space-history");
+            t.setDaemon(true);
+            return t;
+        });
+        // Sample on minute boundaries so every point covers a whole minute
+        long initialDelay = MINUTE_MILLIS - System.currentTimeMillis() % MINUTE_MILLIS;
+        scheduler.scheduleAtFixedRate(this::sample, initialDelay, MINUTE_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * History of every zone, or only of zone when given, at resolution (minute, hour or day).
+     * limit caps the points per zone, newest kept; the current hour or day is included as it fills.
+     */
+    public List<SpaceHistoryDTO> getHistory(String zone, String resolution, Integer limit) {
+        String res = resolution == null || resolution.isBlank() ? MINUTE : resolution.trim().toLowerCase(Locale.ROOT);
+        if (!MINUTE.equals(res) && !HOUR.equals(res) && !DAY.equals(res)) {
+            throw new IllegalArgumentException("Unknown resolution: " + resolution + ". Use minute, hour or day");
+        }
+        String key = Space.normalizeZone(zone);
+        List<SpaceHistoryDTO> result = new ArrayList<>();
+        for (ZoneHistory history : zones.values()) {
+            if (key == null || key.equals(Space.normalizeZone(history.zone))) {
+                result.add(history.toDTO(res, limit != null ? limit : Integer.MAX_VALUE));
+            }
+        }
+        result.sort(Comparator.comparing(SpaceHistoryDTO::getSpaceId));
+        return result;
+    }
+
+    private int loadHistory(long now) {
+        for (Object[] row : spaceRepo.findCapacityLedger()) {
+            history((Integer) row[0], (String) row[1]);
+        }
+        int[] loaded = new int[1];
+        jdbcTemplate.query(
+                "SELECT space_id, resolution, bucket_start, average_utilization, peak_utilization, sample_count " +
+                "FROM space_utilization_sample " +
+                "WHERE (resolution = 'hour' AND bucket_start >= ?) OR (resolution = 'day' AND bucket_start >= ?) " +
+                "ORDER BY bucket_start",
+                (ResultSet rs) -> {
+                    ZoneHistory history = zones.get(rs.getInt(1));
+                    if (history != null) {
+                        history.restore(rs.getString(2), rs.getTimestamp(3).getTime(), rs.getFloat(4), rs.getFloat(5),
+                                rs.getInt(6), now);
+                        loaded[0]++;
+                    }
+                },
+                new Timestamp(now - hourSlots * HOUR_MILLIS), new Timestamp(now - daySlots * DAY_MILLIS));
+        return loaded[0];
+    }
+
+    private void sample() {
+        try {
+            long minute = System.currentTimeMillis() / MINUTE_MILLIS * MINUTE_MILLIS;
+            Set<Integer> seen = new HashSet<>();
+            for (Object[] row : spaceRepo.findCapacityLedger()) {
+                Integer spaceId = (Integer) row[0];
+                int total = row[2] != null ? (Integer) row[2] : 0;
+                int used = row[3] != null ? (Integer) row[3] : 0;
+                float utilization = total > 0 ? used * 100f / total : 0f;
+                history(spaceId, (String) row[1]).record(minute, utilization);
+                seen.add(spaceId);
+            }
+            // Freed zones stop being charted; their stored rows age out with the retention window
+            zones.keySet().retainAll(seen);
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; log and sample again next minute
+            System.out.println("Space history sample failed: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row = pendingRows.poll(); row != null; row = pendingRows.poll()) {
+            rows.add(row);
+        }
+        int closed = rows.size();
+        for (ZoneHistory history : zones.values()) {
+            history.addOpenRows(rows);
+        }
+        try {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            }
+            long now = System.currentTimeMillis();
+            jdbcTemplate.update(
+                    "DELETE FROM space_utilization_sample " +
+                    "WHERE (resolution = 'hour' AND bucket_start < ?) OR (resolution = 'day' AND bucket_start < ?)",
+                    new Timestamp(now - hourSlots * HOUR_MILLIS), new Timestamp(now - daySlots * DAY_MILLIS));
+        } catch (RuntimeException e) {
+            System.out.println("Space history flush of " + rows.size() + " row(s) failed, retrying later: " + e.getMessage());
+            // Open buckets are written afresh next time
+            pendingRows.addAll(rows.subList(0, closed));
+        }
+    }
+
+    private ZoneHistory history(Integer spaceId, String zone) {
+        ZoneHistory history = zones.computeIfAbsent(spaceId, ZoneHistory::new);
+        history.zone = zone;
+        return history;
+    }
+
+    private class ZoneHistory {
+        final Integer spaceId;
+        volatile String zone;
+        final UtilizationRing minutes = new UtilizationRing(minuteSlots);
+        final UtilizationRing hours = new UtilizationRing(hourSlots);
+        final UtilizationRing days = new UtilizationRing(daySlots);
+        final Rollup hour = new Rollup(HOUR, HOUR_MILLIS, hours);
+        final Rollup day = new Rollup(DAY, DAY_MILLIS, days);
+
+        ZoneHistory(Integer spaceId) {
+            this.spaceId = spaceId;
+        }
+
+        synchronized void record(long minute, float utilization) {
+            minutes.add(minute, utilization, utilization);
+            hour.add(minute, utilization);
+            day.add(minute, utilization);
+        }
+
+        synchronized void restore(String resolution, long bucketStart, float average, float peak, int samples, long now) {
+            (HOUR.equals(resolution) ? hours : days).add(bucketStart, average, peak);
+            (HOUR.equals(resolution) ? hour : day).resume(bucketStart, average, peak, samples, now);
+        }
+
+        synchronized void addOpenRows(List<Object[]> rows) {
+            hour.addOpenRow(rows);
+            day.addOpenRow(rows);
+        }
+
+        synchronized SpaceHistoryDTO toDTO(String resolution, int limit) {
+            UtilizationRing ring = MINUTE.equals(resolution) ? minutes : HOUR.equals(resolution) ? hours : days;
+            UtilizationRing.Snapshot snapshot = ring.snapshot(limit);
+            return new SpaceHistoryDTO(spaceId, zone, resolution, snapshot.starts(), snapshot.averages(), snapshot.peaks());
+        }
+
+        // Running average and peak of the open bucket, shown in its ring as it fills
+        private class Rollup {
+            final String resolution;
+            final long length;
+            final UtilizationRing ring;
+            long start = -1;
+            double sum;
+            int count;
+            float peak;
+
+            Rollup(String resolution, long length, UtilizationRing ring) {
+                this.resolution = resolution;
+                this.length = length;
+                this.ring = ring;
+            }
+
+            void add(long minute, float utilization) {
+                long bucket = minute / length * length;
+                if (count > 0 && bucket != start) {
+                    pendingRows.add(row());
+                    sum = 0;
+                    count = 0;
+                    peak = 0;
+                }
+                start = bucket;
+                sum += utilization;
+                count++;
+                peak = Math.max(peak, utilization);
+                ring.add(start, average(), peak);
+            }
+
+            // Carry on with a stored bucket that is still open at now
+            void resume(long bucketStart, float average, float storedPeak, int samples, long now) {
+                if (samples > 0 && bucketStart == now / length * length) {
+                    start = bucketStart;
+                    sum = (double) average * samples;
+                    count = samples;
+                    peak = storedPeak;
+                }
+            }
+
+            void addOpenRow(List<Object[]> rows) {
+                if (count > 0) {
+                    rows.add(row());
+                }
+            }
+
+            float average() {
+                return (float) (sum / count);
+            }
+
+            Object[] row() {
+                return new Object[] {spaceId, resolution, new Timestamp(start), average(), peak, count};
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.cts.lwms.service;
+
+import com.cts.lwms.dto.SpaceReservationRequestDTO;
+import com.cts.lwms.model.Shipment;
+import com.cts.lwms.model.Space;
+import com.cts.lwms.model.SpaceReservation;
+import com.cts.lwms.repo.ShipmentRepo;
+import com.cts.lwms.repo.SpaceRepo;
+import com.cts.lwms.repo.SpaceReservationRepo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capacity holds on zones. A hold moves quantity from availableCapacity to reservedCapacity
+ * with the same conditional UPDATE as an allocation, and is closed by confirm, release or
+ * expiry. Each open hold has one entry in a DelayQueue; a single thread takes entries as
+ * they fall due, so expiry costs nothing until a deadline actually passes.
+ */
+@Service
+public class SpaceReservationService {
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Value("${lwms.reservations.default-ttl-minutes:1440}")
+    private long defaultTtlMinutes;
+
+    @Value("${lwms.reservations.max-ttl-minutes:43200}")
+    private long maxTtlMinutes;
+
+    @Value("${lwms.reservations.retry-seconds:60}")
+    private long retrySeconds;
+
+    @Autowired
+    private SpaceReservationRepo reservationRepo;
+
+    @Autowired
+    private SpaceRepo spaceRepo;
+
+    @Autowired
+    private ShipmentRepo shipmentRepo;
+
+    @Autowired
+    private SpaceService spaceService;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private Thread expirer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT reservation_id, expires_at FROM space_reservation WHERE status = 'HELD'",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(1000);
+            return ps;
+        }, (ResultSet rs) -> {
+            expiries.add(new Expiry(rs.getInt(1), rs.getTimestamp(2).getTime()));
+        });
+        System.out.println("Space reservations loaded " + expiries.size() + " open holds in " + (System.currentTimeMillis() - start) + " ms");
+
+        expirer = new Thread(this::expireLoop, "space-reservations");
+        expirer.setDaemon(true);
+        expirer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (expirer != null) {
+            expirer.interrupt();
+        }
+    }
+
+    /**
+     * Hold quantity in a zone. With a shipmentId the zone defaults to the shipment's destination,
+     * and the hold is confirmed or released when the shipment is completed, cancelled or deleted.
+     */
+    @Transactional
+    public SpaceReservation reserve(SpaceReservationRequestDTO request) {
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int quantity = request.getQuantity();
+        String zone = request.getZone();
+        if (request.getShipmentId() != null) {
+            Shipment shipment = shipmentRepo.findById(request.getShipmentId())
+                    .orElseThrow(() -> new IllegalArgumentException("Shipment not found with ID: " + request.getShipmentId()));
+            if (!ShipmentSlaService.isOpen(shipment.getStatus())) {
+                throw new IllegalArgumentException("Shipment " + shipment.getShipmentId() + " is " + shipment.getStatus()
+                        + "; only open shipments can hold space");
+            }
+            if (Space.normalizeZone(zone) == null) {
+                zone = shipment.getDestination();
+            }
+        }
+        String key = Space.normalizeZone(zone);
+        if (key == null) {
+            throw new IllegalArgumentException("Zone is required");
+        }
+        if (spaceService.resolveZone(key) == null) {
+            throw new IllegalArgumentException("Unknown zone: " + key);
+        }
+        long ttlMinutes = request.getTtlMinutes() != null ? request.getTtlMinutes() : defaultTtlMinutes;
+        if (ttlMinutes <= 0 || ttlMinutes > maxTtlMinutes) {
+            throw new IllegalArgumentException("ttlMinutes must be between 1 and " + maxTtlMinutes);
+        }
+
+        Integer[] heldIn = new Integer[1];
+        boolean held = spaceService.updateZone(key, spaceId -> {
+            int updated = spaceRepo.reserveCapacity(spaceId, quantity);
+            if (updated > 0) {
+                heldIn[0] = spaceId;
+            }
+            return updated;
+        });
+        if (!held) {
+            throw new IllegalStateException("Not enough available capacity in zone " + key + " to hold " + quantity);
+        }
+
+        Date now = new Date();
+        SpaceReservation reservation = new SpaceReservation();
+        reservation.setSpaceId(heldIn[0]);
+        reservation.setZone(key);
+        reservation.setShipmentId(request.getShipmentId());
+        reservation.setQuantity(quantity);
+        reservation.setStatus(HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(new Date(now.getTime() + TimeUnit.MINUTES.toMillis(ttlMinutes)));
+        SpaceReservation saved = reservationRepo.save(reservation);
+
+        Expiry expiry = new Expiry(saved.getReservationId(), saved.getExpiresAt().getTime());
+        afterCommit(() -> expiries.add(expiry));
+        publishHoldChange(saved, quantity, HELD);
+        return saved;
+    }
+
+    public Optional<SpaceReservation> getReservation(Integer reservationId) {
+        return reservationRepo.findById(reservationId);
+    }
+
+    public List<SpaceReservation> getReservationsForShipment(Integer shipmentId) {
+        return reservationRepo.findByShipmentIdOrderByReservationId(shipmentId);
+    }
+
+    /**
+     * The held stock has arrived; the hold ends and the stock is counted through the inventory ledger
+     */
+    @Transactional
+    public Optional<SpaceReservation> confirm(Integer reservationId) {
+        return close(reservationId, CONFIRMED);
+    }
+
+    @Transactional
+    public Optional<SpaceReservation> release(Integer reservationId) {
+        return close(reservationId, RELEASED);
+    }
+
+    /**
+     * Close the open holds of the given shipments as a result of their new status:
+     * Delivered or Received confirms them, Cancelled releases them, other statuses leave them open.
+     */
+    @Transactional
+    public void settleShipments(Collection<Integer> shipmentIds, String shipmentStatus) {
+        String canonical = ShipmentService.canonicalStatus(shipmentStatus);
+        if ("Delivered".equals(canonical) || "Received".equals(canonical)) {
+            closeShipmentHolds(shipmentIds, CONFIRMED);
+        } else if ("Cancelled".equals(canonical)) {
+            closeShipmentHolds(shipmentIds, RELEASED);
+        }
+    }
+
+    /**
+     * Release the open holds of shipments that are being deleted
+     */
+    @Transactional
+    public void releaseShipments(Collection<Integer> shipmentIds) {
+        closeShipmentHolds(shipmentIds, RELEASED);
+    }
+
+    public int getPendingExpiryCount() {
+        return expiries.size();
+    }
+
+    private void closeShipmentHolds(Collection<Integer> shipmentIds, String status) {
+        List<Integer> ids = new ArrayList<>(shipmentIds);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            for (Integer reservationId : reservationRepo.findHeldIdsByShipmentIds(chunk)) {
+                if (reservationRepo.close(reservationId, status, new Date()) > 0) {
+                    // Closed concurrently otherwise; nothing left to give back
+                    reservationRepo.findById(reservationId).ifPresent(reservation -> returnCapacity(reservation, status));
+                }
+            }
+        }
+    }
+
+    private Optional<SpaceReservation> close(Integer reservationId, String status) {
+        Optional<SpaceReservation> found = reservationRepo.findById(reservationId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Date now = new Date();
+        if (reservationRepo.close(reservationId, status, now) == 0) {
+            String current = HELD.equals(found.get().getStatus()) ? "no longer held" : "already " + found.get().getStatus();
+            throw new IllegalStateException("Reservation " + reservationId + " is " + current);
+        }
+        // Same values as the UPDATE above, so the response shows the closed reservation
+        SpaceReservation closed = found.get();
+        closed.setStatus(status);
+        closed.setClosedAt(now);
+        returnCapacity(closed, status);
+        return Optional.of(closed);
+    }
+
+    private void returnCapacity(SpaceReservation reservation, String status) {
+        spaceRepo.releaseReservedCapacity(reservation.getSpaceId(), reservation.getQuantity());
+        publishHoldChange(reservation, -reservation.getQuantity(), status);
+    }
+
+    private void publishHoldChange(SpaceReservation reservation, int delta, String status) {
+        changeEventService.publish(ChangeEventService.ENTITY_SPACE, reservation.getSpaceId(), ChangeEventService.ACTION_UPDATED,
+                ChangeEventService.fields(
+                        "zone", reservation.getZone(),
+                        "reservedCapacityDelta", delta,
+                        "reservationId", reservation.getReservationId(),
+                        "reservationStatus", status));
+    }
+
+    // ---- expiry -------------------------------------------------------------
+
+    private void expireLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Expiry due;
+            try {
+                due = expiries.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                expire(due.reservationId);
+            } catch (RuntimeException e) {
+                System.out.println("Could not expire reservation " + due.reservationId + ", retrying: " + e.getMessage());
+                expiries.add(new Expiry(due.reservationId, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retrySeconds)));
+            }
+        }
+    }
+
+    // Entries are never removed on confirm or release; a closed hold simply fails the HELD check here
+    private void expire(Integer reservationId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Date now = new Date();
+            if (reservationRepo.expire(reservationId, now) == 0) {
+                // Still held means the stored deadline is later than ours (rounded to the second); look again then
+                reservationRepo.findById(reservationId)
+                        .filter(reservation -> HELD.equals(reservation.getStatus()))
+                        .ifPresent(reservation -> expiries.add(new Expiry(reservationId,
+                                Math.max(reservation.getExpiresAt().getTime(), now.getTime()) + 1000)));
+                return;
+            }
+            reservationRepo.findById(reservationId).ifPresent(reservation -> returnCapacity(reservation, EXPIRED));
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Expiry implements Delayed {
+        final Integer reservationId;
+        final long deadlineMillis;
+
+        Expiry(Integer reservationId, long deadlineMillis) {
+            this.reservationId = reservationId;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMillis, ((Expiry) other).deadlineMillis);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.cts.lwms.service;
 
+import com.cts.lwms.dto.SpaceReconciliationDTO;
+import com.cts.lwms.dto.SpaceUsageDTO;
 import com.cts.lwms.model.Space;
-import com.cts.lwms.model.Inventory;
 import com.cts.lwms.repo.SpaceRepo;
 import com.cts.lwms.repo.InventoryRepo;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 @Service
 public class SpaceService {
@@ -21,25 +27,91 @@ public class SpaceService {
     @Autowired
     private InventoryRepo inventoryRepo;
 
-    public List<Space> viewSpaceUsage() {
-        // Get all spaces
-        List<Space> spaces = spaceRepo.findAll();
-        
-        // If no spaces exist, create default zones based on inventory locations
-        if (spaces.isEmpty()) {
-            spaces = createDefaultZones();
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Normalized zone name -> spaceId. Misses fall back to the zone_key index, and an id
+    // whose row has gone is dropped on first use, so the map never needs a full reload.
+    private final Map<String, Integer> zoneIds = new ConcurrentHashMap<>();
+
+    /**
+     * Seed the default zones on an empty database and give rows created before zone_key
+     * existed their key, then seed the lookup map.
+     * Rows whose normalized name duplicates an earlier zone are left unkeyed and reported.
+     */
+    @PostConstruct
+    void initZoneIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (spaceRepo.count() == 0) {
+                createDefaultZones();
+            }
+            Map<String, Integer> keyed = new HashMap<>();
+            for (Object[] row : spaceRepo.findZoneKeys()) {
+                keyed.put((String) row[0], (Integer) row[1]);
+            }
+            for (Space space : spaceRepo.findByZoneKeyIsNull()) {
+                String key = normalizeZone(space.getZone());
+                if (key == null) {
+                    continue;
+                }
+                if (keyed.containsKey(key)) {
+                    System.out.println("Space " + space.getSpaceId() + " duplicates zone " + key
+                            + " (space " + keyed.get(key) + "); left out of zone lookups");
+                    continue;
+                }
+                spaceRepo.setZoneKey(space.getSpaceId(), key);
+                keyed.put(key, space.getSpaceId());
+            }
+            zoneIds.putAll(keyed);
+        });
+        System.out.println("Zone index loaded " + zoneIds.size() + " zones");
+    }
+
+    /**
+     * spaceId of the zone, or null when no zone has that name
+     */
+    public Integer resolveZone(String zone) {
+        String key = normalizeZone(zone);
+        if (key == null) {
+            return null;
         }
-        
-        // Calculate actual space utilization based on inventory data
-        calculateSpaceUtilization(spaces);
-        
-        return spaces;
+        Integer spaceId = zoneIds.get(key);
+        if (spaceId != null) {
+            return spaceId;
+        }
+        Optional<Integer> found = spaceRepo.findIdByZoneKey(key);
+        found.ifPresent(id -> zoneIds.put(key, id));
+        return found.orElse(null);
+    }
+
+    /**
+     * Current usage of every zone, summed from Inventory in a single query.
+     * Nothing is written, so this can run read-only; the ledger on the Space rows is
+     * kept by applyInventoryDelta and repaired through reconcileSpaceUtilization.
+     */
+    @Transactional(readOnly = true)
+    public List<SpaceUsageDTO> viewSpaceUsage() {
+        List<SpaceUsageDTO> usage = new ArrayList<>();
+        for (Object[] row : spaceRepo.findUsageFromInventory()) {
+            int totalCapacity = row[2] != null ? ((Number) row[2]).intValue() : 0;
+            int reservedCapacity = ((Number) row[3]).intValue();
+            int usedCapacity = ((Number) row[4]).intValue();
+            usage.add(new SpaceUsageDTO(((Number) row[0]).intValue(), (String) row[1], totalCapacity, usedCapacity,
+                    reservedCapacity, Math.max(0, totalCapacity - usedCapacity - reservedCapacity)));
+        }
+        return usage;
     }
     
-    private List<Space> createDefaultZones() {
+    // Zones A, B, C, D with default capacities, for a fresh database
+    private void createDefaultZones() {
         List<Space> defaultZones = new ArrayList<>();
         
-        // Create zones A, B, C, D with default capacities
         String[] zones = {"A", "B", "C", "D"};
 //        String[] descriptions = {"Clothing", "Electronics", "Footwear", "Others"};
         
@@ -52,43 +124,45 @@ public class SpaceService {
             defaultZones.add(space);
         }
         
-        // Save default zones
-        return spaceRepo.saveAll(defaultZones);
+        spaceRepo.saveAll(defaultZones);
+        System.out.println("Created default zones A-D");
     }
     
     private void calculateSpaceUtilization(List<Space> spaces) {
-        // Get all inventory items
-        List<Inventory> inventoryItems = inventoryRepo.findAll();
-        
-        // Create a map to track total quantity per zone
-        Map<String, Integer> zoneQuantities = new HashMap<>();
-        
-        // Calculate total quantity for each zone based on inventory locations
-        for (Inventory item : inventoryItems) {
-            String zone = item.getLocation();
-            int quantity = item.getQuantity();
-            
-            if (zone != null && !zone.trim().isEmpty()) {
-                zoneQuantities.put(zone, zoneQuantities.getOrDefault(zone, 0) + quantity);
-            }
-        }
+        // Total quantity per zone, aggregated in the database
+        Map<String, Integer> zoneQuantities = sumQuantityByZone();
         
         // Update space utilization for each zone
         for (Space space : spaces) {
-            String zone = space.getZone();
+            String zone = normalizeZone(space.getZone());
             int usedCapacity = zoneQuantities.getOrDefault(zone, 0);
             
             space.setUsedCapacity(usedCapacity);
-            space.setAvailableCapacity(Math.max(0, space.getTotalCapacity() - usedCapacity));
+            space.setAvailableCapacity(Math.max(0, space.getTotalCapacity() - usedCapacity - space.getReservedCapacity()));
         }
         
         // Save updated spaces
         spaceRepo.saveAll(spaces);
     }
     
+    private Map<String, Integer> sumQuantityByZone() {
+        Map<String, Integer> zoneQuantities = new HashMap<>();
+        for (Object[] row : inventoryRepo.sumQuantityByLocation()) {
+            String zone = normalizeZone((String) row[0]);
+            if (zone != null && row[1] != null) {
+                zoneQuantities.merge(zone, ((Number) row[1]).intValue(), Integer::sum);
+            }
+        }
+        return zoneQuantities;
+    }
+    
+    static String normalizeZone(String zone) {
+        return Space.normalizeZone(zone);
+    }
+    
     /**
-     * Update space utilization when inventory changes
-     * This method should be called after inventory operations
+     * Full recompute of every zone from Inventory.
+     * Inventory writes use applyInventoryDelta instead; this is kept for repairing drift.
      */
     public void updateSpaceUtilization() {
         List<Space> spaces = spaceRepo.findAll();
@@ -97,68 +171,145 @@ public class SpaceService {
         }
     }
 
+    /**
+     * Apply the occupancy change of a single inventory row to the zone ledger:
+     * the old quantity leaves the old zone and the new quantity enters the new zone.
+     * Touches at most two Space rows and runs in the caller's transaction.
+     */
+    @Transactional
+    public void applyInventoryDelta(String oldZone, Integer oldQuantity, String newZone, Integer newQuantity) {
+        String fromZone = normalizeZone(oldZone);
+        String toZone = normalizeZone(newZone);
+        int oldQty = oldQuantity != null ? oldQuantity : 0;
+        int newQty = newQuantity != null ? newQuantity : 0;
+        
+        if (fromZone != null && fromZone.equals(toZone)) {
+            applyZoneDelta(toZone, newQty - oldQty);
+            return;
+        }
+        // Lock the two zone rows in a fixed order so opposite moves cannot deadlock
+        boolean fromFirst = toZone == null || (fromZone != null && fromZone.compareTo(toZone) < 0);
+        if (fromFirst) {
+            applyZoneDelta(fromZone, -oldQty);
+            applyZoneDelta(toZone, newQty);
+        } else {
+            applyZoneDelta(toZone, newQty);
+            applyZoneDelta(fromZone, -oldQty);
+        }
+    }
+
+    private void applyZoneDelta(String zone, int delta) {
+        if (zone != null && delta != 0) {
+            if (updateZone(zone, spaceId -> spaceRepo.applyUsedCapacityDelta(spaceId, delta))) {
+                // The ledger addresses zones by name, so the event carries the zone rather than a spaceId
+                changeEventService.publish(ChangeEventService.ENTITY_SPACE, null, ChangeEventService.ACTION_UPDATED,
+                        ChangeEventService.fields("zone", zone, "usedCapacityDelta", delta));
+            }
+        }
+    }
+
+    private void publishSpaceChange(Space space, String action) {
+        changeEventService.publish(ChangeEventService.ENTITY_SPACE, space.getSpaceId(), action,
+                ChangeEventService.fields(
+                        "zone", space.getZone(),
+                        "totalCapacity", space.getTotalCapacity(),
+                        "usedCapacity", space.getUsedCapacity(),
+                        "availableCapacity", space.getAvailableCapacity()));
+    }
+
+    /**
+     * Compare each zone's ledger against a full recompute from Inventory.
+     * With repair set, drifted zones are overwritten with the recomputed figures.
+     */
+    @Transactional
+    public List<SpaceReconciliationDTO> reconcileSpaceUtilization(boolean repair) {
+        Map<String, Integer> zoneQuantities = sumQuantityByZone();
+        List<Space> spaces = spaceRepo.findAll();
+        List<SpaceReconciliationDTO> results = new ArrayList<>();
+        List<Space> drifted = new ArrayList<>();
+        
+        for (Space space : spaces) {
+            int ledger = space.getUsedCapacity() != null ? space.getUsedCapacity() : 0;
+            int recomputed = zoneQuantities.getOrDefault(normalizeZone(space.getZone()), 0);
+            SpaceReconciliationDTO result = new SpaceReconciliationDTO(space.getSpaceId(), space.getZone(), ledger, recomputed);
+            results.add(result);
+            
+            if (repair && !result.isConsistent()) {
+                space.setUsedCapacity(recomputed);
+                space.setAvailableCapacity(Math.max(0, space.getTotalCapacity() - recomputed - space.getReservedCapacity()));
+                drifted.add(space);
+            }
+        }
+        
+        if (!drifted.isEmpty()) {
+            System.out.println("Repairing space ledger drift in " + drifted.size() + " zone(s)");
+            spaceRepo.saveAll(drifted);
+            drifted.forEach(space -> publishSpaceChange(space, ChangeEventService.ACTION_UPDATED));
+            activityService.record(ChangeEventService.ENTITY_SPACE, null, "Space ledger repaired in " + drifted.size() + " zone(s)");
+        }
+        return results;
+    }
+
     public Space allocateSpace(Space space) {
         // Validate zone
-        if (space.getZone() == null || space.getZone().trim().isEmpty()) {
+        String key = normalizeZone(space.getZone());
+        if (key == null) {
             throw new IllegalArgumentException("Zone is required");
         }
         
         // Check if zone already exists
-        List<Space> existingSpaces = spaceRepo.findAll();
-        for (Space existing : existingSpaces) {
-            if (existing.getZone().equalsIgnoreCase(space.getZone())) {
-                // Update existing zone capacity
-                existing.setTotalCapacity(space.getTotalCapacity());
-                existing.setUsedCapacity(space.getUsedCapacity());
-                existing.setAvailableCapacity(space.getAvailableCapacity());
-                return spaceRepo.save(existing);
-            }
+        Optional<Space> existingZone = spaceRepo.findByZoneKey(key);
+        if (existingZone.isPresent()) {
+            // Update existing zone capacity
+            Space existing = existingZone.get();
+            existing.setTotalCapacity(space.getTotalCapacity());
+            existing.setUsedCapacity(space.getUsedCapacity());
+            // Derived rather than taken from the request, so open holds stay out of it
+            int total = space.getTotalCapacity() != null ? space.getTotalCapacity() : 0;
+            int used = space.getUsedCapacity() != null ? space.getUsedCapacity() : 0;
+            existing.setAvailableCapacity(Math.max(total - used - existing.getReservedCapacity(), 0));
+            Space saved = spaceRepo.save(existing);
+            zoneIds.put(key, saved.getSpaceId());
+            publishSpaceChange(saved, ChangeEventService.ACTION_UPDATED);
+            activityService.record(ChangeEventService.ENTITY_SPACE, saved.getSpaceId(),
+                    "Zone " + saved.getZone() + " resized to " + saved.getTotalCapacity());
+            return saved;
         }
         
         // Create new zone
-        return spaceRepo.save(space);
+        Space saved = spaceRepo.save(space);
+        zoneIds.put(key, saved.getSpaceId());
+        publishSpaceChange(saved, ChangeEventService.ACTION_CREATED);
+        activityService.record(ChangeEventService.ENTITY_SPACE, saved.getSpaceId(),
+                "Zone " + saved.getZone() + " allocated: capacity " + saved.getTotalCapacity());
+        return saved;
     }
 
     public void freeSpace(Integer spaceId) {
         spaceRepo.deleteById(spaceId);
+        zoneIds.values().remove(spaceId);
+        changeEventService.publish(ChangeEventService.ENTITY_SPACE, spaceId, ChangeEventService.ACTION_DELETED, null);
+        activityService.record(ChangeEventService.ENTITY_SPACE, spaceId, "Space " + spaceId + " freed");
     }
 
     public Optional<Space> getSpaceById(Integer spaceId) {
         return spaceRepo.findById(spaceId);
     }
 
-    public boolean allocateProductToSpace(String zone, int productQuantity) {
-        List<Space> spaces = spaceRepo.findAll();
-        for (Space space : spaces) {
-            if (space.getZone().equalsIgnoreCase(zone)) {
-                if (space.getAvailableCapacity() >= productQuantity) {
-                    space.setUsedCapacity(space.getUsedCapacity() + productQuantity);
-                    space.setAvailableCapacity(space.getAvailableCapacity() - productQuantity);
-                    spaceRepo.save(space);
-                    return true;
-                } else {
-                    return false; // Not enough capacity
-                }
-            }
+    // Runs update against the zone's row; a cached id whose row is gone is dropped and resolved once more
+    boolean updateZone(String zone, ToIntFunction<Integer> update) {
+        Integer spaceId = resolveZone(zone);
+        if (spaceId == null) {
+            return false;
         }
-        return false; // Zone not found
-    }
-
-    public boolean allocateInventoryToSpace(String location, int quantity) {
-        // Use location as zone reference
-        List<Space> spaces = spaceRepo.findAll();
-        for (Space space : spaces) {
-            if (space.getZone().equalsIgnoreCase(location)) {
-                if (space.getAvailableCapacity() >= quantity) {
-                    space.setUsedCapacity(space.getUsedCapacity() + quantity);
-                    space.setAvailableCapacity(space.getAvailableCapacity() - quantity);
-                    spaceRepo.save(space);
-                    return true;
-                } else {
-                    return false; // Not enough capacity
-                }
-            }
+        if (update.applyAsInt(spaceId) > 0) {
+            return true;
+        }
+        if (spaceRepo.existsById(spaceId)) {
+            return false; // Row is there; the update's own condition failed
         }
-        return false; // Zone not found
+        zoneIds.remove(normalizeZone(zone), spaceId);
+        Integer current = resolveZone(zone);
+        return current != null && update.applyAsInt(current) > 0;
     }
 }
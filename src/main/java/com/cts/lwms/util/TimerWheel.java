@@ -0,0 +1,158 @@
+package com.cts.lwms.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timer wheel keyed by K. Five levels of 64 slots cover 64^5 ticks; a timer
+ * sits in the coarsest level that matches its distance and is cascaded one level down when
+ * the finer wheel wraps around to it. Scheduling, cancelling and each tick are O(1) however
+ * many timers are pending, apart from the timers that actually fall due.
+ * Timers beyond the last level are parked at its far end and rescheduled when they surface.
+ */
+public class TimerWheel<K> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    private static final long MAX_DISTANCE = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Node<K>[] slots;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private long nextTick; // Next tick to be processed; everything before it has fired
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = (Node<K>[]) new Node[LEVELS * SLOTS];
+        this.nextTick = nowMillis / tickMillis + 1;
+    }
+
+    /**
+     * Schedule (or move) the timer for key to fire at deadlineMillis.
+     * Deadlines already past fire on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            unlink(node);
+        }
+        node = new Node<>(key, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        nodes.put(key, node);
+        place(node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Process every tick up to nowMillis and return the keys that fell due, earliest ticks first.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (nextTick <= targetTick) {
+            long tick = nextTick;
+            int index = (int) (tick & SLOT_MASK);
+            // When a wheel wraps, pull the next slot of the coarser wheel down into the finer ones
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(level, index);
+            }
+            nextTick++;
+
+            int slot = (int) (tick & SLOT_MASK);
+            Node<K> node = slots[slot];
+            slots[slot] = null;
+            while (node != null) {
+                Node<K> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.deadlineTick > tick) {
+                    // Was parked beyond the wheel's range
+                    place(node);
+                } else {
+                    nodes.remove(node.key);
+                    due.add(node.key);
+                }
+                node = next;
+            }
+        }
+        return due;
+    }
+
+    private void cascade(int level, int index) {
+        int slot = level * SLOTS + index;
+        Node<K> node = slots[slot];
+        slots[slot] = null;
+        while (node != null) {
+            Node<K> next = node.next;
+            node.prev = null;
+            node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<K> node) {
+        long distance = node.deadlineTick - nextTick;
+        long expires = node.deadlineTick;
+        if (distance < 0) {
+            expires = nextTick;
+            distance = 0;
+        } else if (distance > MAX_DISTANCE) {
+            expires = nextTick + MAX_DISTANCE;
+            distance = MAX_DISTANCE;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && distance >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) ((expires >>> (SLOT_BITS * level)) & SLOT_MASK);
+        node.slot = slot;
+        node.next = slots[slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (slots[node.slot] == node) {
+            slots[node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static class Node<K> {
+        final K key;
+        final long deadlineTick;
+        int slot;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
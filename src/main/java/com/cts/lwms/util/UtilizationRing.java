@@ -0,0 +1,68 @@
+package com.cts.lwms.util;
+
+/**
+ * Fixed-size ring of (bucket start, average, peak) points held in primitive arrays.
+ * Once full, each new point overwrites the oldest, so memory never grows.
+ * Not thread-safe; callers synchronize.
+ */
+public class UtilizationRing {
+    private final long[] starts;
+    private final float[] averages;
+    private final float[] peaks;
+    private int next;  // Slot the next point is written to
+    private int size;
+
+    public UtilizationRing(int capacity) {
+        this.starts = new long[capacity];
+        this.averages = new float[capacity];
+        this.peaks = new float[capacity];
+    }
+
+    /**
+     * Append a point; a point for the same bucket as the newest one replaces it
+     */
+    public void add(long start, float average, float peak) {
+        if (size > 0 && starts[index(size - 1)] == start) {
+            int last = index(size - 1);
+            averages[last] = average;
+            peaks[last] = peak;
+            return;
+        }
+        starts[next] = start;
+        averages[next] = average;
+        peaks[next] = peak;
+        next = (next + 1) % starts.length;
+        if (size < starts.length) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy of the newest limit points, oldest first
+     */
+    public Snapshot snapshot(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        long[] s = new long[count];
+        float[] a = new float[count];
+        float[] p = new float[count];
+        for (int i = 0; i < count; i++) {
+            int slot = index(size - count + i);
+            s[i] = starts[slot];
+            a[i] = averages[slot];
+            p[i] = peaks[slot];
+        }
+        return new Snapshot(s, a, p);
+    }
+
+    // Slot of the i-th oldest point
+    private int index(int i) {
+        int oldest = size < starts.length ? 0 : next;
+        return (oldest + i) % starts.length;
+    }
+
+    public record Snapshot(long[] starts, float[] averages, float[] peaks) {}
+}
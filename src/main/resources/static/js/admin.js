@@ -42,7 +42,17 @@ const API_ENDPOINTS = {
     REPORT: {
         GENERATE: '/report/generate',
         GET: '/report/get',
-        ALL: '/report/all'
+        ALL: '/report/all',
+        JOBS: '/report/jobs'
+    },
+    // Dashboard API
+    DASHBOARD: {
+        SUMMARY: '/dashboard/summary'
+    },
+    // Activity API
+    ACTIVITY: {
+        RECENT: '/activity/recent',
+        FEED: '/activity/feed'
     }
 };
 
@@ -142,24 +152,22 @@ async function loadDashboardData() {
     try {
         showLoading();
         
-        // Load inventory count
-        const inventoryData = await apiCall(API_ENDPOINTS.INVENTORY.VIEW);
-        const totalItems = inventoryData ? inventoryData.length : 0;
+        // All KPIs in one small response, aggregated on the server
+        const summary = await apiCall(API_ENDPOINTS.DASHBOARD.SUMMARY);
+        
+        // Inventory count
+        const totalItems = summary && summary.totalItems != null ? summary.totalItems : 0;
         document.getElementById('total-items').textContent = totalItems.toLocaleString();
         document.getElementById('items-change').textContent = `Total items in system`;
         
-        // Load shipment count
-        const shipmentData = await apiCall(API_ENDPOINTS.SHIPMENT.ALL);
-        const activeShipments = shipmentData ? shipmentData.filter(s => s.status === 'Pending' || s.status === 'In Transit').length : 0;
+        // Shipment count (Pending or In Transit)
+        const activeShipments = summary && summary.activeShipments != null ? summary.activeShipments : 0;
         document.getElementById('active-shipments').textContent = activeShipments;
         document.getElementById('shipments-change').textContent = `Active shipments`;
         
-        // Load space utilization
-        const spaceData = await apiCall(API_ENDPOINTS.SPACE.VIEW);
-        if (spaceData && spaceData.length > 0) {
-            const totalCapacity = spaceData.reduce((sum, space) => sum + space.totalCapacity, 0);
-            const usedCapacity = spaceData.reduce((sum, space) => sum + space.usedCapacity, 0);
-            const utilization = totalCapacity > 0 ? Math.round((usedCapacity / totalCapacity) * 100) : 0;
+        // Space utilization
+        if (summary && summary.zones > 0) {
+            const utilization = Math.round(summary.utilizationPercentage);
             document.getElementById('space-utilization').textContent = `${utilization}%`;
             document.getElementById('space-change').textContent = utilization > 80 ? 'High usage' : utilization > 50 ? 'Optimal range' : 'Low usage';
         } else {
@@ -167,17 +175,16 @@ async function loadDashboardData() {
             document.getElementById('space-change').textContent = 'No space data';
         }
         
-        // Load maintenance count
-        const maintenanceData = await apiCall(API_ENDPOINTS.MAINTENANCE.VIEW);
-        const pendingMaintenance = maintenanceData ? maintenanceData.filter(m => m.completionStatus === 'Pending').length : 0;
+        // Maintenance count
+        const pendingMaintenance = summary && summary.pendingMaintenance != null ? summary.pendingMaintenance : 0;
         document.getElementById('maintenance-due').textContent = pendingMaintenance;
         document.getElementById('maintenance-change').textContent = `${pendingMaintenance} pending tasks`;
         
         // Load recent activity
         await loadRecentActivity();
         
-        // Load quick stats
-        await loadQuickStats();
+        // Load quick stats from the same summary
+        await loadQuickStats(summary);
         
     } catch (error) {
         console.error('Failed to load dashboard data:', error);
@@ -192,52 +199,14 @@ async function loadRecentActivity() {
         const recentActivity = document.getElementById('recent-activity');
         recentActivity.innerHTML = '<div class="activity-placeholder"><i class="fas fa-spinner fa-spin"></i><p>Loading recent activity...</p></div>';
         
-        // Get recent inventory changes
-        const inventoryData = await apiCall(API_ENDPOINTS.INVENTORY.VIEW);
-        const shipmentsData = await apiCall(API_ENDPOINTS.SHIPMENT.ALL);
-        const maintenanceData = await apiCall(API_ENDPOINTS.MAINTENANCE.VIEW);
-        
-        let activities = [];
-        
-        // Add recent inventory activities
-        if (inventoryData && inventoryData.length > 0) {
-            const recentInventory = inventoryData.slice(0, 2);
-            recentInventory.forEach(item => {
-                activities.push({
-                    icon: 'fas fa-plus',
-                    text: `Item: ${item.itemName} (Qty: ${item.quantity})`,
-                    time: formatTimeAgo(new Date(item.lastUpdated))
-                });
-            });
-        }
-        
-        // Add recent shipment activities
-        if (shipmentsData && shipmentsData.length > 0) {
-            const recentShipments = shipmentsData.slice(0, 2);
-            recentShipments.forEach(shipment => {
-                activities.push({
-                    icon: 'fas fa-shipping-fast',
-                    text: `Shipment: ${shipment.shipmentId} - ${shipment.status}`,
-                    time: formatTimeAgo(new Date(shipment.expectedDeliveryDate))
-                });
-            });
-        }
-        
-        // Add recent maintenance activities
-        if (maintenanceData && maintenanceData.length > 0) {
-            const recentMaintenance = maintenanceData.slice(0, 1);
-            recentMaintenance.forEach(maintenance => {
-                activities.push({
-                    icon: 'fas fa-tools',
-                    text: `Maintenance: ${maintenance.taskDescription}`,
-                    time: formatTimeAgo(new Date(maintenance.scheduledDate))
-                });
-            });
-        }
+        // Latest recorded activity, served from memory on the server
+        const recent = await apiCall(`${API_ENDPOINTS.ACTIVITY.RECENT}?limit=5`);
         
-        // Sort activities by time and take top 3
-        activities.sort((a, b) => new Date(b.time) - new Date(a.time));
-        activities = activities.slice(0, 3);
+        const activities = (recent || []).map(activity => ({
+            icon: activity.icon,
+            text: activity.description,
+            time: formatTimeAgo(new Date(activity.timestamp))
+        }));
         
         if (activities.length > 0) {
             recentActivity.innerHTML = activities.map(activity => `
@@ -261,31 +230,25 @@ async function loadRecentActivity() {
     }
 }
 
-async function loadQuickStats() {
+async function loadQuickStats(summary) {
     try {
-        // Load inventory stats
-        const inventoryData = await apiCall(API_ENDPOINTS.INVENTORY.VIEW);
-        const totalItems = inventoryData ? inventoryData.length : 0;
+        if (!summary) {
+            summary = await apiCall(API_ENDPOINTS.DASHBOARD.SUMMARY);
+        }
+        
+        // Inventory stats
+        const totalItems = summary && summary.totalItems != null ? summary.totalItems : 0;
         document.getElementById('stat-total-items').textContent = totalItems.toLocaleString();
         document.getElementById('stat-items-change').textContent = `Total items`;
         
-        // Load shipment stats
-        const shipmentData = await apiCall(API_ENDPOINTS.SHIPMENT.ALL);
-        const thisMonth = new Date().getMonth();
-        const thisYear = new Date().getFullYear();
-        const monthlyShipments = shipmentData ? shipmentData.filter(s => {
-            const shipmentDate = new Date(s.expectedDeliveryDate);
-            return shipmentDate.getMonth() === thisMonth && shipmentDate.getFullYear() === thisYear;
-        }).length : 0;
+        // Shipment stats (expected delivery this month, counted on the server)
+        const monthlyShipments = summary && summary.shipmentsThisMonth != null ? summary.shipmentsThisMonth : 0;
         document.getElementById('stat-shipments-month').textContent = monthlyShipments;
         document.getElementById('stat-shipments-change').textContent = `This month`;
         
-        // Load space stats
-        const spaceData = await apiCall(API_ENDPOINTS.SPACE.VIEW);
-        if (spaceData && spaceData.length > 0) {
-            const totalCapacity = spaceData.reduce((sum, space) => sum + space.totalCapacity, 0);
-            const usedCapacity = spaceData.reduce((sum, space) => sum + space.usedCapacity, 0);
-            const utilization = totalCapacity > 0 ? Math.round((usedCapacity / totalCapacity) * 100) : 0;
+        // Space stats
+        if (summary && summary.zones > 0) {
+            const utilization = Math.round(summary.utilizationPercentage);
             document.getElementById('stat-space-util').textContent = `${utilization}%`;
             document.getElementById('stat-space-change').textContent = utilization > 80 ? 'High' : utilization > 50 ? 'Optimal' : 'Low';
         } else {
@@ -293,9 +256,8 @@ async function loadQuickStats() {
             document.getElementById('stat-space-change').textContent = 'No data';
         }
         
-        // Load maintenance stats
-        const maintenanceData = await apiCall(API_ENDPOINTS.MAINTENANCE.VIEW);
-        const completedMaintenance = maintenanceData ? maintenanceData.filter(m => m.completionStatus === 'Completed').length : 0;
+        // Maintenance stats
+        const completedMaintenance = summary && summary.completedMaintenance != null ? summary.completedMaintenance : 0;
         document.getElementById('stat-maintenance-completed').textContent = completedMaintenance;
         document.getElementById('stat-maintenance-change').textContent = `Completed`;
         
@@ -315,6 +277,34 @@ function formatTimeAgo(date) {
     return date.toLocaleDateString();
 }
 
+// Live updates: the server pushes small change events over SSE (/events/stream).
+// Bursts are coalesced into one dashboard refresh, and only while the dashboard is visible.
+let changeStreamRefreshTimer = null;
+
+function initializeChangeStream() {
+    if (typeof EventSource === 'undefined') return;
+    
+    const source = new EventSource(API_BASE_URL + '/events/stream');
+    source.addEventListener('change', scheduleDashboardRefresh);
+    // Sent when this client fell behind and events were dropped
+    source.addEventListener('resync', scheduleDashboardRefresh);
+    source.onerror = function() {
+        // EventSource reconnects on its own; changes missed meanwhile are picked up on the next event
+        console.warn('Change stream disconnected, retrying...');
+    };
+}
+
+function scheduleDashboardRefresh() {
+    const dashboard = document.getElementById('dashboard');
+    if (!dashboard || !dashboard.classList.contains('active')) return;
+    if (changeStreamRefreshTimer) return;
+    
+    changeStreamRefreshTimer = setTimeout(async () => {
+        changeStreamRefreshTimer = null;
+        await loadDashboardData();
+    }, 2000);
+}
+
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
     try {
@@ -383,6 +373,9 @@ function initializeApp() {
     
     // Load initial dashboard data
     loadDashboardData();
+    
+    // Refresh the dashboard when other operators change data
+    initializeChangeStream();
 }
 // Sidebar Functionality
 function initializeSidebar() {
@@ -1602,27 +1595,42 @@ function initializeReports() {
  generateReportBtn.addEventListener('click', generateReport);
 }
 
+// Last report fetched after its job completed, used by downloadReport
+let lastGeneratedReport = null;
+
 async function generateReport() {
     try {
-        showLoading();
+        generateReportBtn.disabled = true;
         const reportTypeValue = reportType.value;
         const dateRangeValue = dateRange.value;
-        const reportData = {
+        
+        // The server builds the report in the background; poll the job until it finishes
+        let job = await apiCall(API_ENDPOINTS.REPORT.JOBS, 'POST', {
             reportType: reportTypeValue,
-            details: `${reportTypeValue} report for the last ${dateRangeValue} days`
-        };
-        const generatedReport = await apiCall(API_ENDPOINTS.REPORT.GENERATE, 'POST', reportData);
-        if (generatedReport) {
+            days: parseInt(dateRangeValue, 10) || null
+        });
+        while (job && (job.status === 'QUEUED' || job.status === 'RUNNING')) {
+            reportPreview.innerHTML = `<div class="activity-placeholder"><i class="fas fa-spinner fa-spin"></i><p>${job.status === 'QUEUED' ? 'Waiting in queue...' : `Generating report... ${job.progress}%`}</p></div>`;
+            await new Promise(resolve => setTimeout(resolve, 1000));
+            job = await apiCall(`${API_ENDPOINTS.REPORT.JOBS}/${job.jobId}`);
+        }
+        
+        if (job && job.status === 'COMPLETED') {
+            const generatedReport = await apiCall(`${API_ENDPOINTS.REPORT.GET}/${job.reportId}`);
+            lastGeneratedReport = generatedReport;
             const reportContent = generateReportContent(reportTypeValue, dateRangeValue, generatedReport);
             reportPreview.innerHTML = reportContent;
             downloadReportBtn.disabled = false;
             showToast('Report generated successfully', 'success');
+        } else {
+            reportPreview.innerHTML = '<div class="activity-placeholder"><p>Report was not generated</p></div>';
+            showToast(`Report ${job ? job.status.toLowerCase() : 'failed'}${job && job.error ? ': ' + job.error : ''}`, 'error');
         }
     } catch (error) {
         console.error('Failed to generate report:', error);
         showToast('Failed to generate report', 'error');
     } finally {
-        hideLoading();
+        generateReportBtn.disabled = false;
     }
 }
 
@@ -1636,7 +1644,7 @@ function downloadReport() {
  `${reportTypeValue.toUpperCase()} REPORT\n` +
  `Generated on: ${new Date().toLocaleDateString()}\n` +
  `Date Range: Last ${dateRangeValue} days\n\n` +
- `This is a sample report for the Logistics Warehouse Management System.`
+ (lastGeneratedReport && lastGeneratedReport.details ? lastGeneratedReport.details : `This is a sample report for the Logistics Warehouse Management System.`)
  );
  link.download = `${reportTypeValue}_report_${new 
 Date().toISOString().split('T')[0]}.txt`;
@@ -1669,7 +1677,7 @@ function generateReportContent(reportType, dateRange, reportData) {
             </div>
             <div class="report-details">
                 <h4>Report Details</h4>
-                <p>${reportData.details || 'No additional details available.'}</p>
+                <pre>${reportData.details || 'No additional details available.'}</pre>
             </div>
             <div class="report-chart">
                 <h4>Summary Data</h4>
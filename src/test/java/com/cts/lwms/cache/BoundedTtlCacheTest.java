@@ -0,0 +1,127 @@
+package com.cts.lwms.cache;
+
+import com.cts.lwms.dto.CacheStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void servesLoadedValueUntilItExpires() throws Exception {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 50);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("k", k -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("k", k -> "v" + loads.incrementAndGet()));
+        Thread.sleep(100);
+        assertEquals("v2", cache.get("k", k -> "v" + loads.incrementAndGet()));
+
+        CacheStatsDTO stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+    }
+
+    @Test
+    void statsDropExpiredEntries() throws Exception {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 50);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Thread.sleep(100);
+
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void nullIsNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("k", k -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get("k", k -> { loads.incrementAndGet(); return null; }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 2, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a", k -> "reloaded");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a", k -> "reloaded"));
+        assertEquals("reloaded", cache.get("b", k -> "reloaded"));
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotStored() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 60_000);
+
+        assertEquals("stale", cache.get("k", k -> {
+            cache.invalidate(k);
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get("k", k -> "fresh"));
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 60_000);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("k", k -> {
+            throw new IllegalStateException("down");
+        }));
+        assertEquals("up", cache.get("k", k -> "up"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("k", k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "v";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> cache.get("k", k -> "v" + loads.incrementAndGet()));
+            Future<String> third = executor.submit(() -> cache.get("k", k -> "v" + loads.incrementAndGet()));
+            // Give the waiters time to join the in-flight load before it completes
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("v", first.get(5, TimeUnit.SECONDS));
+            assertEquals("v", second.get(5, TimeUnit.SECONDS));
+            assertEquals("v", third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cts.lwms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    @Test
+    void firesOnTheTickOfItsDeadlineAndNotBefore() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 0);
+        wheel.schedule("a", 25);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 1000);
+        wheel.schedule("late", 0);
+
+        assertEquals(List.of(), wheel.advance(1009));
+        assertEquals(List.of("late"), wheel.advance(1010));
+    }
+
+    @Test
+    void dueKeysComeEarliestFirst() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("b", 30);
+        wheel.schedule("a", 10);
+        wheel.schedule("c", 200);
+
+        assertEquals(List.of("a", "b", "c"), wheel.advance(500));
+    }
+
+    @Test
+    void rescheduleMovesTheTimer() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("a", 10);
+        wheel.schedule("a", 50);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(49));
+        assertEquals(List.of("a"), wheel.advance(50));
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("a", 10);
+        wheel.schedule("b", 10);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(List.of("b"), wheel.advance(10));
+    }
+
+    @Test
+    void distantTimersCascadeDownToTheirExactTick() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(1, 0);
+        // One per level: within 64, 64^2, 64^3 and 64^4 ticks of the start
+        wheel.schedule(1, 63);
+        wheel.schedule(2, 4_000);
+        wheel.schedule(3, 5_000);
+        wheel.schedule(4, 300_000);
+
+        assertEquals(List.of(), wheel.advance(62));
+        assertEquals(List.of(1), wheel.advance(63));
+        assertEquals(List.of(), wheel.advance(3_999));
+        assertEquals(List.of(2), wheel.advance(4_000));
+        assertEquals(List.of(), wheel.advance(4_999));
+        assertEquals(List.of(3), wheel.advance(5_000));
+        assertEquals(List.of(), wheel.advance(299_999));
+        assertEquals(List.of(4), wheel.advance(300_000));
+    }
+
+    @Test
+    void timerBeyondTheWheelRangeStaysParked() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+        wheel.schedule("far", Long.MAX_VALUE / 2);
+
+        assertEquals(List.of(), wheel.advance(1_000_000));
+        assertEquals(1, wheel.size());
+    }
+}
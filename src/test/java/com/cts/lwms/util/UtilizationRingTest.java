@@ -0,0 +1,61 @@
+package com.cts.lwms.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UtilizationRingTest {
+
+    @Test
+    void keepsPointsOldestFirstUntilFull() {
+        UtilizationRing ring = new UtilizationRing(3);
+        ring.add(100, 1f, 2f);
+        ring.add(200, 3f, 4f);
+
+        UtilizationRing.Snapshot snapshot = ring.snapshot(10);
+        assertEquals(2, ring.size());
+        assertArrayEquals(new long[] {100, 200}, snapshot.starts());
+        assertArrayEquals(new float[] {1f, 3f}, snapshot.averages());
+        assertArrayEquals(new float[] {2f, 4f}, snapshot.peaks());
+    }
+
+    @Test
+    void overwritesOldestOnceFull() {
+        UtilizationRing ring = new UtilizationRing(3);
+        for (int i = 1; i <= 5; i++) {
+            ring.add(i * 100L, i, i * 10);
+        }
+
+        assertEquals(3, ring.size());
+        assertArrayEquals(new long[] {300, 400, 500}, ring.snapshot(3).starts());
+        assertArrayEquals(new float[] {30f, 40f, 50f}, ring.snapshot(3).peaks());
+    }
+
+    @Test
+    void sameBucketReplacesNewestPoint() {
+        UtilizationRing ring = new UtilizationRing(2);
+        ring.add(100, 1f, 1f);
+        ring.add(200, 2f, 2f);
+        ring.add(300, 3f, 3f);
+        ring.add(300, 5f, 9f);
+
+        assertEquals(2, ring.size());
+        assertArrayEquals(new long[] {200, 300}, ring.snapshot(2).starts());
+        assertArrayEquals(new float[] {2f, 5f}, ring.snapshot(2).averages());
+        assertArrayEquals(new float[] {2f, 9f}, ring.snapshot(2).peaks());
+    }
+
+    @Test
+    void snapshotLimitTakesNewestPoints() {
+        UtilizationRing ring = new UtilizationRing(4);
+        for (int i = 1; i <= 6; i++) {
+            ring.add(i, i, i);
+        }
+
+        assertArrayEquals(new long[] {5, 6}, ring.snapshot(2).starts());
+        assertEquals(0, ring.snapshot(0).starts().length);
+        assertEquals(0, ring.snapshot(-1).starts().length);
+        assertEquals(0, new UtilizationRing(2).snapshot(5).starts().length);
+    }
+}